@@ -0,0 +1,158 @@
+package com.frozendevs.periodictable;
+
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import com.frozendevs.periodictable.helper.Database;
+import com.frozendevs.periodictable.helper.FacetFilter;
+import com.frozendevs.periodictable.model.adapter.TableAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+public class PeriodicTableApplication extends Application {
+
+    private Handler mHandler = new Handler(Looper.getMainLooper());
+    private TableAdapter mTableAdapter;
+    private boolean mTableTilesLoaded;
+    private FacetFilter mFacetFilter = new FacetFilter();
+
+    /**
+     * Builds and drops the table tiles, in the order they were asked for.
+     */
+    private ExecutorService mTilesExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    return new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+
+                            runnable.run();
+                        }
+                    }, "TableTiles");
+                }
+            });
+
+    private Runnable mNotifyTableAdapter = new Runnable() {
+        @Override
+        public void run() {
+            mTableAdapter.notifyDataSetChanged();
+        }
+    };
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        /*
+         * Start loading the database and rendering the table right away, so that both are likely
+         * to be ready by the time the first fragment asks for them. Rendering the table needs the
+         * database, so it runs behind it at a lower priority.
+         */
+        Database.load(this);
+
+        mTableAdapter = new TableAdapter(this);
+
+        loadTableTiles();
+    }
+
+    public TableAdapter getTableAdapter() {
+        return mTableAdapter;
+    }
+
+    /**
+     * Returns the filter shared by the element list and the table.
+     */
+    public FacetFilter getFacetFilter() {
+        return mFacetFilter;
+    }
+
+    /**
+     * Builds the table tiles unless they are already built or being built. Must be called on the
+     * main thread.
+     */
+    public void loadTableTiles() {
+        if (!mTableTilesLoaded) {
+            mTableTilesLoaded = true;
+
+            mTilesExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    mTableAdapter.setItems(Database.getInstance(PeriodicTableApplication.this)
+                            .getTableItems());
+
+                    mTableAdapter.buildDrawingCache();
+
+                    mHandler.post(mNotifyTableAdapter);
+
+                    /*
+                     * Saved once the table can already be drawn, for the next cold start.
+                     */
+                    mTableAdapter.saveDrawingCache();
+                }
+            });
+        }
+    }
+
+    /*
+     * Drops the tiles, except for the level the table was last drawn from unless everything has
+     * to go. The next loadTableTiles() builds them all again.
+     */
+    private void unloadTableTiles(final boolean keepLevelInUse) {
+        if (mTableTilesLoaded) {
+            mTableTilesLoaded = false;
+
+            mTilesExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (keepLevelInUse) {
+                        mTableAdapter.trimDrawingCache();
+                    } else {
+                        mTableAdapter.destroyDrawingCache();
+                    }
+
+                    mHandler.post(mNotifyTableAdapter);
+                }
+            });
+        }
+    }
+
+    /*
+     * Everything released here is rebuilt on demand. The tiles are the bulk of the memory used,
+     * once the process is in the background only the level on screen is kept, so the table shows
+     * up right away when it comes back while the rest is rebuilt.
+     */
+    private void trimMemory(int level) {
+        Database.trimMemory(level);
+
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            unloadTableTiles(level < ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+
+        trimMemory(level);
+    }
+
+    /*
+     * onTrimMemory() is only called since Ice Cream Sandwich.
+     */
+    @Override
+    public void onLowMemory() {
+        super.onLowMemory();
+
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+            trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+        }
+    }
+}
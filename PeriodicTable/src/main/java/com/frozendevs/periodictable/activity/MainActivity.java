@@ -1,17 +1,22 @@
 package com.frozendevs.periodictable.activity;
 
+import android.content.DialogInterface;
 import android.content.Intent;
 import android.os.Bundle;
 import android.support.design.widget.TabLayout;
 import android.support.v4.view.ViewPager;
+import android.support.v7.app.AlertDialog;
 import android.support.v7.app.AppCompatActivity;
 import android.support.v7.widget.Toolbar;
 import android.view.Menu;
 import android.view.MenuItem;
 
+import com.frozendevs.periodictable.PeriodicTableApplication;
 import com.frozendevs.periodictable.R;
 import com.frozendevs.periodictable.fragment.ElementsFragment;
 import com.frozendevs.periodictable.fragment.TableFragment;
+import com.frozendevs.periodictable.helper.FacetFilter;
+import com.frozendevs.periodictable.model.Facet;
 import com.frozendevs.periodictable.model.adapter.ViewPagerAdapter;
 
 public class MainActivity extends AppCompatActivity {
@@ -52,8 +57,90 @@ public class MainActivity extends AppCompatActivity {
             case R.id.action_about:
                 startActivity(new Intent(this, AboutActivity.class));
                 return true;
+
+            case R.id.action_filter_category:
+                showFilterDialog(Facet.CATEGORY, R.string.property_category);
+                return true;
+
+            case R.id.action_filter_block:
+                showFilterDialog(Facet.BLOCK, R.string.property_block);
+                return true;
+
+            case R.id.action_filter_period:
+                showFilterDialog(Facet.PERIOD, R.string.property_period);
+                return true;
+
+            case R.id.action_filter_group:
+                showFilterDialog(Facet.GROUP, R.string.property_group);
+                return true;
+
+            case R.id.action_filter_phase:
+                showFilterDialog(Facet.PHASE, R.string.property_phase);
+                return true;
+
+            case R.id.action_clear_filter:
+                ((PeriodicTableApplication) getApplication()).getFacetFilter().clear();
+                return true;
         }
 
         return super.onOptionsItemSelected(item);
     }
+
+    /*
+     * The filter is applied as soon as a value is checked or unchecked.
+     */
+    private void showFilterDialog(final Facet facet, int titleId) {
+        final FacetFilter facetFilter = ((PeriodicTableApplication) getApplication())
+                .getFacetFilter();
+
+        String[] labels = getFacetValueLabels(facet);
+        boolean[] checkedItems = new boolean[labels.length];
+
+        for (int value = 0; value < labels.length; value++) {
+            checkedItems[value] = facetFilter.isSelected(facet, value);
+        }
+
+        new AlertDialog.Builder(this)
+                .setTitle(titleId)
+                .setMultiChoiceItems(labels, checkedItems,
+                        new DialogInterface.OnMultiChoiceClickListener() {
+                            @Override
+                            public void onClick(DialogInterface dialog, int which,
+                                                boolean isChecked) {
+                                facetFilter.setSelected(facet, which, isChecked);
+                            }
+                        })
+                .setPositiveButton(android.R.string.ok, null)
+                .show();
+    }
+
+    private String[] getFacetValueLabels(Facet facet) {
+        String[] labels = new String[facet.getValuesCount()];
+
+        for (int value = 0; value < labels.length; value++) {
+            switch (facet) {
+                case CATEGORY:
+                    labels[value] = getString(Facet.CATEGORY_NAMES[value]);
+                    break;
+
+                case BLOCK:
+                    labels[value] = getString(R.string.facet_block, Facet.BLOCKS.charAt(value));
+                    break;
+
+                case PERIOD:
+                    labels[value] = getString(R.string.facet_period, value + 1);
+                    break;
+
+                case GROUP:
+                    labels[value] = getString(R.string.facet_group, value + 1);
+                    break;
+
+                case PHASE:
+                    labels[value] = getString(Facet.PHASE_NAMES[value]);
+                    break;
+            }
+        }
+
+        return labels;
+    }
 }
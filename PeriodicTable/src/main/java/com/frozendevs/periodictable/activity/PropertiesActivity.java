@@ -35,6 +35,7 @@ public class PropertiesActivity extends AppCompatActivity {
     public static final String ARGUMENT_PROPERTIES = "properties";
 
     private String mWikipediaUrl;
+    private boolean mDestroyed;
 
     @TargetApi(Build.VERSION_CODES.HONEYCOMB_MR1)
     @Override
@@ -70,13 +71,55 @@ public class PropertiesActivity extends AppCompatActivity {
             }
         }
 
-        ElementProperties elementProperties = Database.getInstance(this).getElementProperties(
-                getIntent().getIntExtra(EXTRA_ATOMIC_NUMBER, 1));
-        mWikipediaUrl = elementProperties.getWikipediaLink();
-
         setSupportActionBar((Toolbar) findViewById(R.id.toolbar));
 
         getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+
+        final int atomicNumber = getIntent().getIntExtra(EXTRA_ATOMIC_NUMBER, 1);
+
+        /*
+         * The postponed enter transition is started by PropertiesFragment once the properties are
+         * laid out.
+         */
+        Database.query(this, new Database.Query<ElementProperties>() {
+            @Override
+            public ElementProperties run(Database database) {
+                return database.getElementProperties(atomicNumber);
+            }
+        }, new Database.Callback<ElementProperties>() {
+            @Override
+            public void onResult(ElementProperties result) {
+                /*
+                 * An activity recreated by a configuration change runs its own query.
+                 */
+                if (mDestroyed || isFinishing()) {
+                    return;
+                }
+
+                if (result != null) {
+                    setElementProperties(result);
+                } else {
+                    /*
+                     * There is no such element, nothing to show.
+                     */
+                    supportStartPostponedEnterTransition();
+
+                    finish();
+                }
+            }
+        });
+    }
+
+    @Override
+    protected void onDestroy() {
+        mDestroyed = true;
+
+        super.onDestroy();
+    }
+
+    private void setElementProperties(ElementProperties elementProperties) {
+        mWikipediaUrl = elementProperties.getWikipediaLink();
+
         getSupportActionBar().setTitle(elementProperties.getName());
 
         Bundle bundle = new Bundle();
@@ -104,7 +147,9 @@ public class PropertiesActivity extends AppCompatActivity {
     public boolean onOptionsItemSelected(MenuItem item) {
         switch (item.getItemId()) {
             case R.id.action_wiki:
-                startActivity(new Intent(Intent.ACTION_VIEW, Uri.parse(mWikipediaUrl)));
+                if (mWikipediaUrl != null) {
+                    startActivity(new Intent(Intent.ACTION_VIEW, Uri.parse(mWikipediaUrl)));
+                }
                 return true;
 
             case android.R.id.home:
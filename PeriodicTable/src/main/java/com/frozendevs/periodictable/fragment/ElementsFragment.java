@@ -1,6 +1,6 @@
 package com.frozendevs.periodictable.fragment;
 
-import android.os.AsyncTask;
+import android.database.DataSetObserver;
 import android.os.Bundle;
 import android.support.v4.app.Fragment;
 import android.support.v4.view.MenuItemCompat;
@@ -14,37 +14,50 @@ import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
 
+import com.frozendevs.periodictable.PeriodicTableApplication;
 import com.frozendevs.periodictable.R;
 import com.frozendevs.periodictable.helper.Database;
-import com.frozendevs.periodictable.model.ElementListItem;
+import com.frozendevs.periodictable.helper.ElementNames;
+import com.frozendevs.periodictable.helper.ElementQuery;
+import com.frozendevs.periodictable.helper.ElementSet;
+import com.frozendevs.periodictable.helper.FacetFilter;
+import com.frozendevs.periodictable.helper.Facets;
+import com.frozendevs.periodictable.helper.NumericColumns;
+import com.frozendevs.periodictable.helper.SortedIndex;
+import com.frozendevs.periodictable.helper.TextIndex;
+import com.frozendevs.periodictable.model.NumericProperty;
 import com.frozendevs.periodictable.model.adapter.ElementsAdapter;
 import com.frozendevs.periodictable.view.RecyclerView;
 import com.frozendevs.periodictable.widget.DividerDecoration;
 
+import java.util.Locale;
+
 public class ElementsFragment extends Fragment {
 
     private ElementsAdapter mAdapter;
     private RecyclerView mRecyclerView;
     private View mEmptyView;
+    private View mProgressBar;
+    private boolean mLoadFailed;
 
     private String mSearchQuery;
 
-    private class LoadData extends AsyncTask<Void, Void, ElementListItem[]> {
+    private NumericColumns mNumericColumns;
+    private Facets mFacets;
+    private SortedIndex mNameSortedIndex;
+    private Locale mNameLocale;
+    private ElementSet mMatches = new ElementSet();
+    private FacetFilter mFacetFilter;
+    private ElementQuery mQuery;
+    private ElementSet mQueryMatches = new ElementSet();
 
+    private DataSetObserver mFacetFilterObserver = new DataSetObserver() {
         @Override
-        protected ElementListItem[] doInBackground(Void... params) {
-            return Database.getInstance(getActivity()).getElementListItems();
+        public void onChanged() {
+            applyFacetFilter();
         }
-
-        @Override
-        protected void onPostExecute(ElementListItem[] result) {
-            mAdapter.setItems(result);
-
-            mAdapter.notifyDataSetChanged();
-
-            mRecyclerView.setEmptyView(mEmptyView);
-        }
-    }
+    };
+    private int mSortItemId = R.id.action_sort_atomic_number;
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
@@ -55,7 +68,137 @@ public class ElementsFragment extends Fragment {
 
         mAdapter = new ElementsAdapter();
 
-        new LoadData().execute();
+        mFacetFilter = ((PeriodicTableApplication) getActivity().getApplication())
+                .getFacetFilter();
+        mFacetFilter.registerObserver(mFacetFilterObserver);
+
+        /*
+         * The list items and the numeric columns are in memory once the database is loaded.
+         */
+        Database.load(getActivity(), new Database.Callback<Database>() {
+            @Override
+            public void onResult(Database result) {
+                if (result == null) {
+                    mLoadFailed = true;
+
+                    if (mRecyclerView != null) {
+                        mProgressBar.setVisibility(View.GONE);
+                        mRecyclerView.setEmptyView(mEmptyView);
+                    }
+
+                    return;
+                }
+
+                mNumericColumns = result.getNumericColumns();
+                mFacets = result.getFacets();
+
+                applyQuery();
+                applyFacetFilter();
+                mAdapter.setSortedIndex(getSortedIndex(mSortItemId));
+                mAdapter.setItems(result.getElementListItems());
+
+                if (mRecyclerView != null) {
+                    mRecyclerView.setEmptyView(mEmptyView);
+                }
+            }
+        });
+
+        loadNameSortedIndex();
+
+        /*
+         * Searching the other properties waits for the full-text index, built in the background.
+         */
+        Database.query(getActivity(), new Database.Query<TextIndex>() {
+            @Override
+            public TextIndex run(Database database) {
+                return database.getTextIndex();
+            }
+        }, new Database.Callback<TextIndex>() {
+            @Override
+            public void onResult(TextIndex result) {
+                mAdapter.setTextIndex(result);
+            }
+        });
+
+        Database.query(getActivity(), new Database.Query<ElementNames>() {
+            @Override
+            public ElementNames run(Database database) {
+                return database.getElementNames();
+            }
+        }, new Database.Callback<ElementNames>() {
+            @Override
+            public void onResult(ElementNames result) {
+                mAdapter.setElementNames(result);
+            }
+        });
+    }
+
+    /*
+     * Collates the names for the current locale on the database thread, sorting by name falls
+     * back to atomic number until they are.
+     */
+    private void loadNameSortedIndex() {
+        final Locale locale = getResources().getConfiguration().locale;
+
+        if (locale.equals(mNameLocale)) {
+            return;
+        }
+
+        mNameLocale = locale;
+
+        Database.query(getActivity(), new Database.Query<SortedIndex>() {
+            @Override
+            public SortedIndex run(Database database) {
+                return database.getNameCollation().getSortedIndex(locale);
+            }
+        }, new Database.Callback<SortedIndex>() {
+            @Override
+            public void onResult(SortedIndex result) {
+                if (locale.equals(mNameLocale)) {
+                    mNameSortedIndex = result;
+
+                    if (mNumericColumns != null && mSortItemId == R.id.action_sort_name) {
+                        mAdapter.setSortedIndex(result);
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+
+        mFacetFilter.unregisterObserver(mFacetFilterObserver);
+        mFacetFilter.setQueryMatches(null);
+    }
+
+    /*
+     * The matches of a query are shared through the facet filter, so that the table highlights
+     * them too and the list shows them through setMatches().
+     */
+    private void applyQuery() {
+        if (mNumericColumns != null) {
+            if (mQuery == null) {
+                mFacetFilter.setQueryMatches(null);
+            } else {
+                mQuery.evaluate(mNumericColumns, mFacets, mQueryMatches);
+
+                mFacetFilter.setQueryMatches(mQueryMatches);
+            }
+        }
+    }
+
+    private void applyFacetFilter() {
+        if (mFacets != null) {
+            if (mFacetFilter.isEmpty()) {
+                mAdapter.setMatches(null);
+            } else {
+                mFacetFilter.getMatches(mFacets, mMatches);
+
+                mAdapter.setMatches(mMatches);
+            }
+        }
     }
 
     @Override
@@ -63,13 +206,19 @@ public class ElementsFragment extends Fragment {
                              Bundle savedInstanceState) {
         View rootView = inflater.inflate(R.layout.elements_list_fragment, container, false);
 
+        /*
+         * The fragment is retained, the locale may have changed with the configuration.
+         */
+        loadNameSortedIndex();
+
         mEmptyView = rootView.findViewById(R.id.empty_elements_list);
+        mProgressBar = rootView.findViewById(R.id.progress_bar);
 
         mRecyclerView = (RecyclerView) rootView.findViewById(R.id.elements_list);
         mRecyclerView.setLayoutManager(new LinearLayoutManager(getActivity()));
         mRecyclerView.setAdapter(mAdapter);
-        mRecyclerView.setEmptyView(mAdapter.getItemCount() > 0 ? mEmptyView :
-                rootView.findViewById(R.id.progress_bar));
+        mRecyclerView.setEmptyView(mAdapter.getItemCount() > 0 || mLoadFailed ? mEmptyView :
+                mProgressBar);
         mRecyclerView.addItemDecoration(new DividerDecoration(getActivity()));
 
         return rootView;
@@ -99,7 +248,19 @@ public class ElementsFragment extends Fragment {
                     mSearchQuery = newText;
                 }
 
-                mAdapter.filter(getActivity(), newText);
+                /*
+                 * A query such as "density > 5 && block == d" is compiled once per change and
+                 * evaluated right away, anything else is searched as text.
+                 */
+                mQuery = ElementQuery.compile(newText);
+
+                if (mQuery != null) {
+                    mAdapter.clearFilter();
+                } else {
+                    mAdapter.filter(newText);
+                }
+
+                applyQuery();
 
                 return true;
             }
@@ -122,6 +283,9 @@ public class ElementsFragment extends Fragment {
 
                         mAdapter.clearFilter();
 
+                        mQuery = null;
+                        applyQuery();
+
                         return true;
                     }
                 });
@@ -132,6 +296,80 @@ public class ElementsFragment extends Fragment {
             searchView.setQuery(mSearchQuery, false);
         }
 
+        menu.findItem(mSortItemId).setChecked(true);
+
         super.onCreateOptionsMenu(menu, inflater);
     }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        switch (item.getItemId()) {
+            case R.id.action_sort_atomic_number:
+            case R.id.action_sort_name:
+            case R.id.action_sort_weight:
+            case R.id.action_sort_density:
+            case R.id.action_sort_melting_point:
+            case R.id.action_sort_boiling_point:
+            case R.id.action_sort_electronegativity:
+            case R.id.action_sort_atomic_radius:
+            case R.id.action_sort_ionization_energy:
+                item.setChecked(true);
+
+                mSortItemId = item.getItemId();
+
+                if (mNumericColumns != null) {
+                    mAdapter.setSortedIndex(getSortedIndex(mSortItemId));
+
+                    mRecyclerView.scrollToPosition(0);
+                }
+                return true;
+        }
+
+        return super.onOptionsItemSelected(item);
+    }
+
+    /*
+     * Returns the index to sort the list by for the given menu item, null for atomic number.
+     */
+    private SortedIndex getSortedIndex(int itemId) {
+        NumericProperty property;
+
+        switch (itemId) {
+            case R.id.action_sort_name:
+                return mNameSortedIndex;
+
+            case R.id.action_sort_weight:
+                property = NumericProperty.WEIGHT;
+                break;
+
+            case R.id.action_sort_density:
+                property = NumericProperty.DENSITY;
+                break;
+
+            case R.id.action_sort_melting_point:
+                property = NumericProperty.MELTING_POINT;
+                break;
+
+            case R.id.action_sort_boiling_point:
+                property = NumericProperty.BOILING_POINT;
+                break;
+
+            case R.id.action_sort_electronegativity:
+                property = NumericProperty.ELECTRONEGATIVITY;
+                break;
+
+            case R.id.action_sort_atomic_radius:
+                property = NumericProperty.ATOMIC_RADIUS;
+                break;
+
+            case R.id.action_sort_ionization_energy:
+                property = NumericProperty.IONIZATION_ENERGY;
+                break;
+
+            default:
+                return null;
+        }
+
+        return mNumericColumns.getSortedIndex(property);
+    }
 }
@@ -9,22 +9,67 @@ import android.widget.ExpandableListView;
 
 import com.frozendevs.periodictable.R;
 import com.frozendevs.periodictable.activity.PropertiesActivity;
+import com.frozendevs.periodictable.helper.Database;
 import com.frozendevs.periodictable.model.ElementProperties;
+import com.frozendevs.periodictable.model.Isotope;
 import com.frozendevs.periodictable.model.adapter.IsotopesAdapter;
 
 public class IsotopesFragment extends Fragment {
 
+    private IsotopesAdapter mAdapter;
+    private boolean mLoading;
+
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container,
                              Bundle savedInstanceState) {
         View layout = inflater.inflate(R.layout.isotopes_fragment, container, false);
 
+        mAdapter = new IsotopesAdapter(getActivity());
+        mLoading = false;
+
         ExpandableListView listView = (ExpandableListView) layout.findViewById(R.id.isotopes_list);
-        listView.setAdapter(new IsotopesAdapter(getActivity(), ((ElementProperties) getArguments().
-                get(PropertiesActivity.ARGUMENT_PROPERTIES)).getIsotopes()));
+        listView.setAdapter(mAdapter);
 
         getActivity().registerForContextMenu(listView);
 
+        if (getUserVisibleHint()) {
+            loadData();
+        }
+
         return layout;
     }
+
+    @Override
+    public void setUserVisibleHint(boolean isVisibleToUser) {
+        super.setUserVisibleHint(isVisibleToUser);
+
+        if (isVisibleToUser && mAdapter != null) {
+            loadData();
+        }
+    }
+
+    /*
+     * Isotopes are only read once the tab is shown for the first time.
+     */
+    private void loadData() {
+        if (!mLoading) {
+            mLoading = true;
+
+            final int atomicNumber = ((ElementProperties) getArguments().get(
+                    PropertiesActivity.ARGUMENT_PROPERTIES)).getNumber();
+            final IsotopesAdapter adapter = mAdapter;
+
+            Database.query(getActivity(), new Database.Query<Isotope[]>() {
+                @Override
+                public Isotope[] run(Database database) {
+                    return database.getIsotopes(atomicNumber);
+                }
+            }, new Database.Callback<Isotope[]>() {
+                @Override
+                public void onResult(Isotope[] result) {
+                    adapter.setItems(result != null ? result : new Isotope[0]);
+                }
+            });
+        }
+    }
 }
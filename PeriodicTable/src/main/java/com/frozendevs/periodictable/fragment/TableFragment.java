@@ -2,7 +2,7 @@ package com.frozendevs.periodictable.fragment;
 
 import android.annotation.TargetApi;
 import android.content.Intent;
-import android.os.AsyncTask;
+import android.database.DataSetObserver;
 import android.os.Build;
 import android.os.Bundle;
 import android.support.v4.app.ActivityCompat;
@@ -13,9 +13,13 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import com.frozendevs.periodictable.PeriodicTableApplication;
 import com.frozendevs.periodictable.R;
 import com.frozendevs.periodictable.activity.PropertiesActivity;
 import com.frozendevs.periodictable.helper.Database;
+import com.frozendevs.periodictable.helper.ElementSet;
+import com.frozendevs.periodictable.helper.FacetFilter;
+import com.frozendevs.periodictable.helper.Facets;
 import com.frozendevs.periodictable.model.TableItem;
 import com.frozendevs.periodictable.model.adapter.TableAdapter;
 import com.frozendevs.periodictable.view.PeriodicTableView;
@@ -28,24 +32,16 @@ public class TableFragment extends Fragment implements PeriodicTableView.OnItemC
     private PeriodicTableView mPeriodicTableView;
     private static TableFragment mInstance;
 
-    private class LoadData extends AsyncTask<Void, Void, Void> {
+    private Facets mFacets;
+    private ElementSet mMatches = new ElementSet();
+    private FacetFilter mFacetFilter;
 
+    private DataSetObserver mFacetFilterObserver = new DataSetObserver() {
         @Override
-        protected Void doInBackground(Void... params) {
-            mAdapter.destroyDrawingCache();
-
-            mAdapter.setItems(Database.getInstance(getActivity()).getTableItems());
-
-            mAdapter.buildDrawingCache(mPeriodicTableView);
-
-            return null;
-        }
-
-        @Override
-        protected void onPostExecute(Void result) {
-            mAdapter.notifyDataSetChanged();
+        public void onChanged() {
+            applyFacetFilter();
         }
-    }
+    };
 
     public SharedElementCallback mSharedElementCallback = new SharedElementCallback() {
 
@@ -94,9 +90,45 @@ public class TableFragment extends Fragment implements PeriodicTableView.OnItemC
 
         setRetainInstance(true);
 
-        mAdapter = new TableAdapter(getActivity());
+        PeriodicTableApplication application =
+                (PeriodicTableApplication) getActivity().getApplication();
+
+        mAdapter = application.getTableAdapter();
 
-        new LoadData().execute();
+        mFacetFilter = application.getFacetFilter();
+        mFacetFilter.registerObserver(mFacetFilterObserver);
+
+        Database.load(getActivity(), new Database.Callback<Database>() {
+            @Override
+            public void onResult(Database result) {
+                if (result != null) {
+                    mFacets = result.getFacets();
+
+                    applyFacetFilter();
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+
+        mFacetFilter.unregisterObserver(mFacetFilterObserver);
+    }
+
+    private void applyFacetFilter() {
+        if (mFacets != null) {
+            if (mFacetFilter.isEmpty()) {
+                mAdapter.setMatches(null);
+            } else {
+                mFacetFilter.getMatches(mFacets, mMatches);
+
+                mAdapter.setMatches(mMatches);
+            }
+
+            mAdapter.notifyDataSetChanged();
+        }
     }
 
     @Override
@@ -109,14 +141,14 @@ public class TableFragment extends Fragment implements PeriodicTableView.OnItemC
         mPeriodicTableView.setOnItemClickListener(this);
         mPeriodicTableView.setEmptyView(rootView.findViewById(R.id.progress_bar));
 
-        return rootView;
-    }
-
-    @Override
-    public void onDestroy() {
-        super.onDestroy();
+        /*
+         * The tiles may have been built before the view existed.
+         */
+        if (!mAdapter.isEmpty()) {
+            mAdapter.notifyDataSetChanged();
+        }
 
-        mAdapter.destroyDrawingCache();
+        return rootView;
     }
 
     @Override
@@ -137,11 +169,14 @@ public class TableFragment extends Fragment implements PeriodicTableView.OnItemC
 
     @TargetApi(Build.VERSION_CODES.HONEYCOMB)
     public void onExitTransitionFinished() {
-        View view = mPeriodicTableView.getActiveView();
+        mPeriodicTableView.updateActiveViewAlpha();
+    }
 
-        if (view != null) {
-            view.setAlpha(1f);
-        }
+    @Override
+    public void onStart() {
+        super.onStart();
+
+        ((PeriodicTableApplication) getActivity().getApplication()).loadTableTiles();
     }
 
     @Override
@@ -1,92 +1,380 @@
 package com.frozendevs.periodictable.helper;
 
 import android.content.Context;
+import android.content.res.Resources;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.support.v4.util.LruCache;
 
-import com.frozendevs.periodictable.R;
 import com.frozendevs.periodictable.model.ElementListItem;
 import com.frozendevs.periodictable.model.ElementProperties;
+import com.frozendevs.periodictable.model.Isotope;
 import com.frozendevs.periodictable.model.TableItem;
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
+
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+public abstract class Database {
+
+    private static final int PROPERTIES_CACHE_SIZE = 16;
+
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    public interface Query<T> {
+        T run(Database database);
+    }
 
-public class Database {
+    /**
+     * Loads the database and runs every query after it, one at a time. Every screen waits for the
+     * database, so the thread runs at the default priority rather than in the background.
+     */
+    private static final ExecutorService mExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    return new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_DEFAULT);
 
-    private String mInput;
-    private JsonArray mJsonArray;
-    private Gson mGson;
+                            runnable.run();
+                        }
+                    }, "Database");
+                }
+            });
 
-    private static Database mInstance;
+    private static final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private static FutureTask<Database> mLoadTask;
+    private static List<Callback<Database>> mCallbacks = new ArrayList<Callback<Database>>();
+
+    private LruCache<Integer, ElementProperties> mPropertiesCache =
+            new LruCache<Integer, ElementProperties>(PROPERTIES_CACHE_SIZE);
+    private DatabaseSnapshot mSnapshot;
+    private TableItem[] mItems;
+    private NumericColumns mNumericColumns;
+    private Facets mFacets;
+    private TextIndex mTextIndex;
+    private final Object mTextIndexLock = new Object();
+    private Resources mResources;
+    private ElementNames mElementNames;
+    private NameCollation mNameCollation;
+
+    protected Database(Context context) {
+        mSnapshot = new DatabaseSnapshot(context.getApplicationContext());
+        mResources = context.getResources();
+    }
+
+    private static Database create(Context context) {
+        Database database;
 
-    private Database(Context context) {
         try {
-            InputStream inputStream = context.getResources().openRawResource(R.raw.database);
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            
-            byte[] buffer = new byte[8192];
-            int length;
-
-            while ((length = inputStream.read(buffer)) != -1) {
-                outputStream.write(buffer, 0, length);
-            }
+            database = new MappedDatabase(context);
+        } catch (IOException e) {
+            e.printStackTrace();
+
+            database = new JsonDatabase(context);
+        }
+
+        database.getItems();
+
+        return database;
+    }
+
+    /**
+     * Starts loading the database on the first call. Every later call returns the same task, so
+     * there is only ever one load no matter how many callers are waiting for it.
+     */
+    private static synchronized FutureTask<Database> getLoadTask(Context context) {
+        if (mLoadTask == null) {
+            final Context applicationContext = context.getApplicationContext();
+
+            mLoadTask = new FutureTask<Database>(new Callable<Database>() {
+                @Override
+                public Database call() throws Exception {
+                    return create(applicationContext);
+                }
+            }) {
+                @Override
+                protected void done() {
+                    List<Callback<Database>> callbacks;
+
+                    synchronized (Database.class) {
+                        callbacks = mCallbacks;
+
+                        mCallbacks = new ArrayList<Callback<Database>>();
+                    }
+
+                    Database database = getResultOrNull(this);
+
+                    for (Callback<Database> callback : callbacks) {
+                        post(callback, database);
+                    }
+                }
+            };
 
-            mInput = new String(outputStream.toByteArray());
+            mExecutor.execute(mLoadTask);
+        }
+
+        return mLoadTask;
+    }
+
+    private static Database getResult(FutureTask<Database> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
 
-            outputStream.close();
-            inputStream.close();
-        } catch (Exception e) {
+    /*
+     * The database, or null if it failed to load, for the callbacks which have to run anyway.
+     */
+    private static Database getResultOrNull(FutureTask<Database> task) {
+        try {
+            return getResult(task);
+        } catch (RuntimeException e) {
             e.printStackTrace();
+
+            return null;
         }
+    }
 
-        mJsonArray = new JsonParser().parse(mInput).getAsJsonArray();
-        mGson = new Gson();
+    private static <T> void post(final Callback<T> callback, final T result) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                callback.onResult(result);
+            }
+        });
     }
 
-    public static synchronized Database getInstance(Context context) {
-        if(mInstance == null) {
-            mInstance = new Database(context);
+    /**
+     * Returns the database, waiting for it to load if necessary. Must not be called from the main
+     * thread, use load() or query() there instead.
+     */
+    public static Database getInstance(Context context) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            throw new IllegalStateException("Database accessed from the main thread");
         }
 
-        return mInstance;
+        return getResult(getLoadTask(context));
     }
 
-    public ElementListItem[] getElementListItems() {
-        List<ElementListItem> itemsList = new ArrayList<ElementListItem>(Arrays.asList(
-                mGson.fromJson(mInput, ElementListItem[].class)));
+    /**
+     * Starts loading the database if it is not loaded yet.
+     */
+    public static void load(Context context) {
+        getLoadTask(context);
+    }
+
+    /**
+     * Starts loading the database if it is not loaded yet. The callback is run on the main thread,
+     * right away if the database is already loaded, with null if it failed to load.
+     */
+    public static void load(Context context, Callback<Database> callback) {
+        FutureTask<Database> task;
+
+        synchronized (Database.class) {
+            task = getLoadTask(context);
+
+            if (!task.isDone()) {
+                mCallbacks.add(callback);
+
+                return;
+            }
+        }
+
+        Database database = getResultOrNull(task);
+
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            callback.onResult(database);
+        } else {
+            post(callback, database);
+        }
+    }
 
-        Collections.sort(itemsList, new Comparator<ElementListItem>() {
+    /**
+     * Runs the query on the database thread once the database is loaded and passes its result to
+     * the callback on the main thread, null if the database failed to load or the query threw.
+     */
+    public static <T> void query(Context context, final Query<T> query,
+                                 final Callback<T> callback) {
+        final FutureTask<Database> task = getLoadTask(context);
+
+        mExecutor.execute(new Runnable() {
             @Override
-            public int compare(ElementListItem lhs, ElementListItem rhs) {
-                return lhs.getNumber() - rhs.getNumber();
+            public void run() {
+                T result = null;
+
+                try {
+                    result = query.run(getResult(task));
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+
+                post(callback, result);
             }
         });
+    }
+
+    /**
+     * Releases whatever the loaded database can rebuild on demand. Called by the application from
+     * onTrimMemory().
+     */
+    public static void trimMemory(int level) {
+        FutureTask<Database> task;
+
+        synchronized (Database.class) {
+            task = mLoadTask;
+        }
+
+        Database database = task != null && task.isDone() ? getResultOrNull(task) : null;
+
+        if (database != null) {
+            database.onTrimMemory(level);
+        }
+    }
+
+    protected void onTrimMemory(int level) {
+        mPropertiesCache.evictAll();
+    }
+
+    /**
+     * Returns the table items sorted by atomic number, built once together with the numeric
+     * columns and the facets and then read from the snapshot on later cold starts. The collation
+     * keys of the names are only computed once a locale asks for them.
+     */
+    private synchronized TableItem[] getItems() {
+        if (mItems == null) {
+            if (mSnapshot.read()) {
+                mItems = mSnapshot.getItems();
+                mNumericColumns = mSnapshot.getNumericColumns();
+                mFacets = mSnapshot.getFacets();
+            } else {
+                TableItem[] items = loadTableItems();
+
+                Arrays.sort(items, new Comparator<TableItem>() {
+                    @Override
+                    public int compare(TableItem lhs, TableItem rhs) {
+                        return lhs.getNumber() - rhs.getNumber();
+                    }
+                });
+
+                ElementProperties[] elements = new ElementProperties[items.length];
+                for (int i = 0; i < items.length; i++) {
+                    elements[i] = loadElementProperties(items[i].getNumber());
+                }
+
+                mNumericColumns = NumericColumns.build(elements);
+                mFacets = Facets.build(elements);
+                mItems = items;
+
+                mSnapshot.write(mItems, mNumericColumns, mFacets);
+            }
+
+            mNameCollation = new NameCollation(mItems);
+        }
+
+        return mItems;
+    }
+
+    public ElementListItem[] getElementListItems() {
+        TableItem[] items = getItems();
 
-        return itemsList.toArray(new ElementListItem[itemsList.size()]);
+        return Arrays.copyOf(items, items.length, ElementListItem[].class);
     }
 
     public TableItem[] getTableItems() {
-        return mGson.fromJson(mInput, TableItem[].class);
+        return getItems().clone();
+    }
+
+    protected abstract TableItem[] loadTableItems();
+
+    public NumericColumns getNumericColumns() {
+        getItems();
+
+        return mNumericColumns;
+    }
+
+    public Facets getFacets() {
+        getItems();
+
+        return mFacets;
+    }
+
+    /**
+     * Returns the full-text index of the properties of all the elements, built on first use.
+     * Reads every element, so it is only called on the database thread through query(). It is
+     * built under a lock of its own, so the getters the main thread calls never wait for it.
+     */
+    public TextIndex getTextIndex() {
+        synchronized (mTextIndexLock) {
+            if (mTextIndex == null) {
+                TableItem[] items = getItems();
+
+                ElementProperties[] elements = new ElementProperties[items.length];
+                for (int i = 0; i < items.length; i++) {
+                    elements[i] = loadElementProperties(items[i].getNumber());
+                }
+
+                mTextIndex = TextIndex.build(elements);
+            }
+
+            return mTextIndex;
+        }
+    }
+
+    /**
+     * Returns the names of the elements in the other languages, read on first use.
+     */
+    public synchronized ElementNames getElementNames() {
+        if (mElementNames == null) {
+            mElementNames = ElementNames.read(mResources);
+        }
+
+        return mElementNames;
+    }
+
+    public NameCollation getNameCollation() {
+        getItems();
+
+        return mNameCollation;
     }
 
     public ElementProperties getElementProperties(int element) {
-        for(JsonElement jsonElement : mJsonArray) {
-            JsonObject object = jsonElement.getAsJsonObject();
+        ElementProperties properties = mPropertiesCache.get(element);
 
-            if(object.get("number").getAsInt() == element) {
-                return mGson.fromJson(object, ElementProperties.class);
+        if (properties == null) {
+            properties = loadElementProperties(element);
+
+            if (properties != null) {
+                mPropertiesCache.put(element, properties);
             }
         }
 
-        return null;
+        return properties;
     }
+
+    /**
+     * Builds the properties of the given element, which are then kept in a small LRU cache by
+     * getElementProperties().
+     */
+    protected abstract ElementProperties loadElementProperties(int element);
+
+    public abstract Isotope[] getIsotopes(int element);
 }
@@ -0,0 +1,253 @@
+package com.frozendevs.periodictable.helper;
+
+import android.content.Context;
+
+import com.frozendevs.periodictable.BuildConfig;
+import com.frozendevs.periodictable.model.Facet;
+import com.frozendevs.periodictable.model.NumericProperty;
+import com.frozendevs.periodictable.model.TableItem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * The table items in atomic number order, the numeric columns and the facets, saved to the files
+ * directory after they were first built so that later cold starts read them back in one
+ * sequential pass instead of building them again.
+ *
+ * The snapshot is keyed by the version code of the app and the CRC32 of R.raw.database computed at
+ * build time, so it is rebuilt whenever the app is updated.
+ */
+class DatabaseSnapshot {
+
+    private static final String FILE_NAME = "database.snapshot";
+    private static final int MAGIC = 0x50545353;
+    private static final int VERSION = 4;
+
+    private File mFile;
+    private TableItem[] mItems;
+    private NumericColumns mNumericColumns;
+    private Facets mFacets;
+
+    DatabaseSnapshot(Context context) {
+        mFile = new File(context.getFilesDir(), FILE_NAME);
+    }
+
+    TableItem[] getItems() {
+        return mItems;
+    }
+
+    NumericColumns getNumericColumns() {
+        return mNumericColumns;
+    }
+
+    Facets getFacets() {
+        return mFacets;
+    }
+
+    /**
+     * Reads the snapshot, returns false if there is no snapshot built by this version of the app.
+     * A snapshot which cannot be read, truncated or corrupt, is deleted.
+     */
+    boolean read() {
+        if (!mFile.exists()) {
+            return false;
+        }
+
+        DataInputStream inputStream = null;
+
+        int bufferSize = (int) Math.max(Math.min(mFile.length(), 65536), 1);
+
+        try {
+            inputStream = new DataInputStream(new BufferedInputStream(
+                    new FileInputStream(mFile), bufferSize));
+
+            if (inputStream.readInt() != MAGIC || inputStream.readInt() != VERSION ||
+                    inputStream.readInt() != BuildConfig.VERSION_CODE ||
+                    inputStream.readLong() != BuildConfig.DATABASE_HASH) {
+                return false;
+            }
+
+            TableItem[] items = new TableItem[readCount(inputStream, ElementSet.CAPACITY)];
+
+            for (int i = 0; i < items.length; i++) {
+                int number = inputStream.readShort();
+                int group = inputStream.readByte();
+                int period = inputStream.readByte();
+                int category = inputStream.readByte();
+
+                items[i] = new TableItem(inputStream.readUTF(), inputStream.readUTF(), number,
+                        inputStream.readUTF(), group, period, category);
+            }
+
+            int columnsCount = inputStream.readInt();
+
+            if (columnsCount != NumericProperty.values().length) {
+                return false;
+            }
+
+            double[][] columns = new double[columnsCount][readCount(inputStream,
+                    ElementSet.CAPACITY)];
+
+            for (double[] column : columns) {
+                for (int i = 0; i < column.length; i++) {
+                    column[i] = inputStream.readDouble();
+                }
+            }
+
+            ElementSet elements = readElementSet(inputStream);
+
+            Facet[] facets = Facet.values();
+
+            if (inputStream.readInt() != facets.length) {
+                return false;
+            }
+
+            ElementSet[][] sets = new ElementSet[facets.length][];
+
+            for (int facet = 0; facet < sets.length; facet++) {
+                if (inputStream.readInt() != facets[facet].getValuesCount()) {
+                    return false;
+                }
+
+                sets[facet] = new ElementSet[facets[facet].getValuesCount()];
+
+                for (int value = 0; value < sets[facet].length; value++) {
+                    sets[facet][value] = readElementSet(inputStream);
+                }
+            }
+
+            mItems = items;
+            mNumericColumns = new NumericColumns(columns);
+            mFacets = new Facets(elements, sets);
+
+            return true;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+        } finally {
+            close(inputStream);
+        }
+
+        /*
+         * Whatever made the snapshot unreadable would fail the same way on every cold start.
+         */
+        mFile.delete();
+
+        return false;
+    }
+
+    /*
+     * Reads a count which cannot be negative or larger than the given maximum.
+     */
+    private static int readCount(DataInputStream inputStream, int max) throws IOException {
+        int count = inputStream.readInt();
+
+        if (count < 0 || count > max) {
+            throw new IOException("Invalid count in snapshot: " + count);
+        }
+
+        return count;
+    }
+
+    /**
+     * Replaces the snapshot with the given items, columns and facets. The file is written next to
+     * the old one and renamed over it, so a process killed halfway through never leaves a
+     * truncated snapshot.
+     */
+    void write(TableItem[] items, NumericColumns numericColumns, Facets facets) {
+        File file = new File(mFile.getPath() + ".tmp");
+
+        DataOutputStream outputStream = null;
+
+        try {
+            outputStream = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(file)));
+
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(VERSION);
+            outputStream.writeInt(BuildConfig.VERSION_CODE);
+            outputStream.writeLong(BuildConfig.DATABASE_HASH);
+            outputStream.writeInt(items.length);
+
+            for (TableItem item : items) {
+                outputStream.writeShort(item.getNumber());
+                outputStream.writeByte(item.getGroup());
+                outputStream.writeByte(item.getPeriod());
+                outputStream.writeByte(item.getCategory());
+                writeString(outputStream, item.getName());
+                writeString(outputStream, item.getSymbol());
+                writeString(outputStream, item.getStandardAtomicWeight());
+            }
+
+            double[][] columns = numericColumns.getColumns();
+
+            outputStream.writeInt(columns.length);
+            outputStream.writeInt(numericColumns.size());
+
+            for (double[] column : columns) {
+                for (double value : column) {
+                    outputStream.writeDouble(value);
+                }
+            }
+
+            writeElementSet(outputStream, facets.getElements());
+
+            ElementSet[][] sets = facets.getSets();
+
+            outputStream.writeInt(sets.length);
+
+            for (ElementSet[] facetSets : sets) {
+                outputStream.writeInt(facetSets.length);
+
+                for (ElementSet set : facetSets) {
+                    writeElementSet(outputStream, set);
+                }
+            }
+
+            outputStream.close();
+            outputStream = null;
+
+            if (!file.renameTo(mFile)) {
+                throw new IOException("Unable to replace " + mFile);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+
+            close(outputStream);
+
+            file.delete();
+        }
+    }
+
+    private static ElementSet readElementSet(DataInputStream inputStream) throws IOException {
+        return new ElementSet(inputStream.readLong(), inputStream.readLong());
+    }
+
+    private static void writeElementSet(DataOutputStream outputStream, ElementSet set)
+            throws IOException {
+        outputStream.writeLong(set.getLow());
+        outputStream.writeLong(set.getHigh());
+    }
+
+    private static void writeString(DataOutputStream outputStream, String string)
+            throws IOException {
+        outputStream.writeUTF(string != null ? string : "");
+    }
+
+    private static void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
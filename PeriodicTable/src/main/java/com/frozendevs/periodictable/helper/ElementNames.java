@@ -0,0 +1,95 @@
+package com.frozendevs.periodictable.helper;
+
+import android.content.res.Resources;
+
+import com.frozendevs.periodictable.R;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The names of the elements in the languages of R.raw.element_names, next to the English names
+ * of the database. The resource has one line per language, its code followed by the names in
+ * atomic number order, all separated by tabs. Names spelled the same in several languages share
+ * one string.
+ */
+public class ElementNames {
+
+    private String[] mLanguages;
+    private String[][] mNames;
+
+    private ElementNames(String[] languages, String[][] names) {
+        mLanguages = languages;
+        mNames = names;
+    }
+
+    static ElementNames read(Resources resources) {
+        List<String> languages = new ArrayList<>();
+        List<String[]> names = new ArrayList<>();
+        StringPool stringPool = new StringPool();
+
+        BufferedReader reader = null;
+
+        try {
+            reader = new BufferedReader(new InputStreamReader(
+                    resources.openRawResource(R.raw.element_names), "UTF-8"));
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                String[] fields = line.split("\t");
+
+                /*
+                 * The names are indexed by atomic number, the language code takes index 0.
+                 */
+                String[] languageNames = new String[fields.length];
+
+                for (int number = 1; number < fields.length; number++) {
+                    languageNames[number] = stringPool.intern(fields[number]);
+                }
+
+                languages.add(fields[0]);
+                names.add(languageNames);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        return new ElementNames(languages.toArray(new String[languages.size()]),
+                names.toArray(new String[names.size()][]));
+    }
+
+    public int getLanguagesCount() {
+        return mLanguages.length;
+    }
+
+    /**
+     * Returns the ISO 639-1 code of the language at the given index.
+     */
+    public String getLanguage(int language) {
+        return mLanguages[language];
+    }
+
+    /**
+     * Returns the name of the element in the language at the given index, or null if it has none.
+     */
+    public String getName(int language, int number) {
+        String[] names = mNames[language];
+
+        return number > 0 && number < names.length ? names[number] : null;
+    }
+}
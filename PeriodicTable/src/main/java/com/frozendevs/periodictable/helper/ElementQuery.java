@@ -0,0 +1,566 @@
+package com.frozendevs.periodictable.helper;
+
+import com.frozendevs.periodictable.model.Facet;
+import com.frozendevs.periodictable.model.NumericProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A query such as {@code density > 5 && block == "d" && meltingPoint < 1500K}, compiled once into
+ * a tree of set operations. Comparisons of numeric properties scan their column, comparisons of
+ * facets combine the precomputed sets, so evaluating a query over every element allocates nothing
+ * and takes a few microseconds.
+ *
+ * Comparisons are combined with &&, || and !, and grouped with parentheses. A property is named
+ * like the field of ElementProperties it comes from, in any case and with or without underscores,
+ * and an element whose value is unknown matches no comparison of it. Temperatures are in kelvins
+ * unless followed by C or F.
+ */
+public class ElementQuery {
+
+    private static final NumericProperty[] NUMERIC_PROPERTIES = NumericProperty.values();
+
+    /*
+     * The categories in the order of their facet values.
+     */
+    private static final String[] CATEGORIES = {
+            "diatomic nonmetals", "noble gases", "alkali metals", "alkaline earth metals",
+            "metalloids", "polyatomic nonmetals", "other metals", "transition metals",
+            "lanthanides", "actinides", "unknown"
+    };
+
+    private static final String OPERATOR_CHARACTERS = "<>=!";
+
+    private static final int EQUAL = 0;
+    private static final int NOT_EQUAL = 1;
+    private static final int LESS = 2;
+    private static final int LESS_OR_EQUAL = 3;
+    private static final int GREATER = 4;
+    private static final int GREATER_OR_EQUAL = 5;
+
+    private static final String[] OPERATORS = {"==", "!=", "<", "<=", ">", ">="};
+
+    private Node mRoot;
+
+    private ElementQuery(Node root) {
+        mRoot = root;
+    }
+
+    /**
+     * Compiles the given text, returns null if it is not a query, so that it can be searched as
+     * plain text instead.
+     */
+    public static ElementQuery compile(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        boolean comparison = false;
+
+        for (int i = 0; i < text.length() && !comparison; i++) {
+            comparison = OPERATOR_CHARACTERS.indexOf(text.charAt(i)) >= 0;
+        }
+
+        if (!comparison) {
+            return null;
+        }
+
+        try {
+            Parser parser = new Parser(text);
+
+            Node root = parser.parseOr();
+
+            if (!parser.isAtEnd()) {
+                throw new IllegalArgumentException("Unexpected input at " + parser.mPosition);
+            }
+
+            return new ElementQuery(root);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores the elements matching the query in result.
+     */
+    public void evaluate(NumericColumns columns, Facets facets, ElementSet result) {
+        mRoot.evaluate(columns, facets);
+
+        result.set(mRoot.mResult);
+    }
+
+    /*
+     * Returns 1 if the comparison holds, 0 if it does not or the value is unknown.
+     */
+    private static int compare(double value, int operator, double operand) {
+        if (Double.isNaN(value)) {
+            return 0;
+        }
+
+        switch (operator) {
+            case EQUAL:
+                return value == operand ? 1 : 0;
+
+            case NOT_EQUAL:
+                return value != operand ? 1 : 0;
+
+            case LESS:
+                return value < operand ? 1 : 0;
+
+            case LESS_OR_EQUAL:
+                return value <= operand ? 1 : 0;
+
+            case GREATER:
+                return value > operand ? 1 : 0;
+
+            case GREATER_OR_EQUAL:
+                return value >= operand ? 1 : 0;
+        }
+
+        return 0;
+    }
+
+    private static abstract class Node {
+        ElementSet mResult = new ElementSet();
+
+        abstract void evaluate(NumericColumns columns, Facets facets);
+    }
+
+    private static class AndNode extends Node {
+        private Node[] mChildren;
+
+        AndNode(List<Node> children) {
+            mChildren = children.toArray(new Node[children.size()]);
+        }
+
+        @Override
+        void evaluate(NumericColumns columns, Facets facets) {
+            mResult.set(facets.getElements());
+
+            for (Node child : mChildren) {
+                child.evaluate(columns, facets);
+
+                mResult.and(child.mResult);
+            }
+        }
+    }
+
+    private static class OrNode extends Node {
+        private Node[] mChildren;
+
+        OrNode(List<Node> children) {
+            mChildren = children.toArray(new Node[children.size()]);
+        }
+
+        @Override
+        void evaluate(NumericColumns columns, Facets facets) {
+            mResult.clear();
+
+            for (Node child : mChildren) {
+                child.evaluate(columns, facets);
+
+                mResult.or(child.mResult);
+            }
+        }
+    }
+
+    private static class NotNode extends Node {
+        private Node mChild;
+
+        NotNode(Node child) {
+            mChild = child;
+        }
+
+        @Override
+        void evaluate(NumericColumns columns, Facets facets) {
+            mChild.evaluate(columns, facets);
+
+            mResult.set(facets.getElements());
+            mResult.andNot(mChild.mResult);
+        }
+    }
+
+    /*
+     * A numeric property compared with a number, scanning its column.
+     */
+    private static class ColumnNode extends Node {
+        private NumericProperty mProperty;
+        private int mOperator;
+        private double mOperand;
+
+        ColumnNode(NumericProperty property, int operator, double operand) {
+            mProperty = property;
+            mOperator = operator;
+            mOperand = operand;
+        }
+
+        /*
+         * The matching values are one or two runs of the sorted index, found by binary search.
+         */
+        @Override
+        void evaluate(NumericColumns columns, Facets facets) {
+            SortedIndex index = columns.getSortedIndex(mProperty);
+
+            int lower = index.lowerBound(mOperand);
+            int upper = index.upperBound(mOperand);
+
+            mResult.clear();
+
+            switch (mOperator) {
+                case EQUAL:
+                    addRange(index, lower, upper);
+                    break;
+
+                case NOT_EQUAL:
+                    addRange(index, 0, lower);
+                    addRange(index, upper, index.size());
+                    break;
+
+                case LESS:
+                    addRange(index, 0, lower);
+                    break;
+
+                case LESS_OR_EQUAL:
+                    addRange(index, 0, upper);
+                    break;
+
+                case GREATER:
+                    addRange(index, upper, index.size());
+                    break;
+
+                case GREATER_OR_EQUAL:
+                    addRange(index, lower, index.size());
+                    break;
+            }
+        }
+
+        private void addRange(SortedIndex index, int from, int to) {
+            for (int rank = from; rank < to; rank++) {
+                mResult.add(index.getNumber(rank));
+            }
+        }
+    }
+
+    /*
+     * The atomic number compared with a number.
+     */
+    private static class NumberNode extends Node {
+        private int mOperator;
+        private double mOperand;
+
+        NumberNode(int operator, double operand) {
+            mOperator = operator;
+            mOperand = operand;
+        }
+
+        @Override
+        void evaluate(NumericColumns columns, Facets facets) {
+            ElementSet elements = facets.getElements();
+
+            mResult.clear();
+
+            for (int number = 0; number < ElementSet.CAPACITY; number++) {
+                if (elements.contains(number) &&
+                        compare(number, mOperator, mOperand) != 0) {
+                    mResult.add(number);
+                }
+            }
+        }
+    }
+
+    /*
+     * A facet compared with a value, the union of the sets of the matching facet values. Which
+     * values match is known once the query is compiled.
+     */
+    private static class FacetNode extends Node {
+        private Facet mFacet;
+        private int mValues;
+
+        FacetNode(Facet facet, int values) {
+            mFacet = facet;
+            mValues = values;
+        }
+
+        @Override
+        void evaluate(NumericColumns columns, Facets facets) {
+            mResult.clear();
+
+            for (int value = 0; value < mFacet.getValuesCount(); value++) {
+                if ((mValues & (1 << value)) != 0) {
+                    mResult.or(facets.get(mFacet, value));
+                }
+            }
+        }
+    }
+
+    private static class Parser {
+        private String mText;
+        private int mPosition;
+
+        Parser(String text) {
+            mText = text;
+        }
+
+        boolean isAtEnd() {
+            skipWhitespace();
+
+            return mPosition == mText.length();
+        }
+
+        private void skipWhitespace() {
+            while (mPosition < mText.length() && Character.isWhitespace(mText.charAt(mPosition))) {
+                mPosition++;
+            }
+        }
+
+        private boolean accept(String token) {
+            skipWhitespace();
+
+            if (mText.startsWith(token, mPosition)) {
+                mPosition += token.length();
+
+                return true;
+            }
+
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw new IllegalArgumentException("Expected " + token + " at " + mPosition);
+            }
+        }
+
+        Node parseOr() {
+            List<Node> children = new ArrayList<>();
+
+            do {
+                children.add(parseAnd());
+            } while (accept("||"));
+
+            return children.size() == 1 ? children.get(0) : new OrNode(children);
+        }
+
+        private Node parseAnd() {
+            List<Node> children = new ArrayList<>();
+
+            do {
+                children.add(parseUnary());
+            } while (accept("&&"));
+
+            return children.size() == 1 ? children.get(0) : new AndNode(children);
+        }
+
+        private Node parseUnary() {
+            if (accept("(")) {
+                Node node = parseOr();
+
+                expect(")");
+
+                return node;
+            }
+
+            skipWhitespace();
+
+            /*
+             * A lone ! negates, != is the start of a comparison which is missing its property.
+             */
+            if (mText.startsWith("!", mPosition) && !mText.startsWith("!=", mPosition)) {
+                mPosition++;
+
+                return new NotNode(parseUnary());
+            }
+
+            return parseComparison();
+        }
+
+        private Node parseComparison() {
+            String name = readIdentifier();
+            int operator = readOperator();
+
+            String key = name.replace("_", "").toLowerCase(Locale.ENGLISH);
+
+            if (key.equals("number") || key.equals("atomicnumber") || key.equals("z")) {
+                return new NumberNode(operator, readNumber());
+            }
+
+            for (NumericProperty property : NUMERIC_PROPERTIES) {
+                if (key.equals(property.name().replace("_", "").toLowerCase(Locale.ENGLISH))) {
+                    double operand = readNumber();
+
+                    if (property == NumericProperty.MELTING_POINT ||
+                            property == NumericProperty.BOILING_POINT) {
+                        operand = readTemperatureUnit(operand);
+                    }
+
+                    return new ColumnNode(property, operator, operand);
+                }
+            }
+
+            if (key.equals("period") || key.equals("group")) {
+                Facet facet = key.equals("period") ? Facet.PERIOD : Facet.GROUP;
+                double operand = readNumber();
+
+                int values = 0;
+                for (int value = 0; value < facet.getValuesCount(); value++) {
+                    values |= compare(value + 1, operator, operand) << value;
+                }
+
+                return new FacetNode(facet, values);
+            }
+
+            if (key.equals("block") || key.equals("phase") || key.equals("category")) {
+                if (operator != EQUAL && operator != NOT_EQUAL) {
+                    throw new IllegalArgumentException("Only == and != compare " + name);
+                }
+
+                String operand = readString().toLowerCase(Locale.ENGLISH);
+
+                Facet facet;
+                int value = -1;
+
+                if (key.equals("block")) {
+                    facet = Facet.BLOCK;
+                    value = operand.length() == 1 ? Facet.BLOCKS.indexOf(operand.charAt(0)) : -1;
+                } else if (key.equals("phase")) {
+                    facet = Facet.PHASE;
+
+                    for (int i = 0; i < Facet.PHASES.length; i++) {
+                        if (Facet.PHASES[i].equalsIgnoreCase(operand)) {
+                            value = i;
+                        }
+                    }
+                } else {
+                    facet = Facet.CATEGORY;
+
+                    for (int i = 0; i < CATEGORIES.length; i++) {
+                        if (CATEGORIES[i].equals(operand)) {
+                            value = i;
+                        }
+                    }
+                }
+
+                if (value < 0) {
+                    throw new IllegalArgumentException("Unknown " + name + ": " + operand);
+                }
+
+                int values = 1 << value;
+
+                if (operator == NOT_EQUAL) {
+                    values = ((1 << facet.getValuesCount()) - 1) & ~values;
+                }
+
+                return new FacetNode(facet, values);
+            }
+
+            throw new IllegalArgumentException("Unknown property: " + name);
+        }
+
+        private String readIdentifier() {
+            skipWhitespace();
+
+            int start = mPosition;
+
+            while (mPosition < mText.length() && (Character.isLetterOrDigit(
+                    mText.charAt(mPosition)) || mText.charAt(mPosition) == '_')) {
+                mPosition++;
+            }
+
+            if (start == mPosition || Character.isDigit(mText.charAt(start))) {
+                throw new IllegalArgumentException("Expected a property at " + start);
+            }
+
+            return mText.substring(start, mPosition);
+        }
+
+        /*
+         * The longest operator first, so that <= is not read as <. A single = compares too.
+         */
+        private int readOperator() {
+            for (int operator : new int[]{LESS_OR_EQUAL, GREATER_OR_EQUAL, EQUAL, NOT_EQUAL,
+                    LESS, GREATER}) {
+                if (accept(OPERATORS[operator])) {
+                    return operator;
+                }
+            }
+
+            if (accept("=")) {
+                return EQUAL;
+            }
+
+            throw new IllegalArgumentException("Expected an operator at " + mPosition);
+        }
+
+        private double readNumber() {
+            skipWhitespace();
+
+            int start = mPosition;
+
+            if (mPosition < mText.length() && (mText.charAt(mPosition) == '-' ||
+                    mText.charAt(mPosition) == '+')) {
+                mPosition++;
+            }
+
+            while (mPosition < mText.length() && (Character.isDigit(mText.charAt(mPosition)) ||
+                    mText.charAt(mPosition) == '.')) {
+                mPosition++;
+            }
+
+            try {
+                return Double.parseDouble(mText.substring(start, mPosition));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Expected a number at " + start);
+            }
+        }
+
+        /*
+         * Converts a temperature followed by K, C, F, °C or °F to kelvins.
+         */
+        private double readTemperatureUnit(double value) {
+            skipWhitespace();
+
+            accept("°");
+
+            if (accept("C") || accept("c")) {
+                return value + 273.15;
+            }
+
+            if (accept("F") || accept("f")) {
+                return ((value - 32) * 5 / 9) + 273.15;
+            }
+
+            if (!accept("K")) {
+                accept("k");
+            }
+
+            return value;
+        }
+
+        /*
+         * A quoted string, or a bare word.
+         */
+        private String readString() {
+            skipWhitespace();
+
+            if (mPosition < mText.length() && (mText.charAt(mPosition) == '"' ||
+                    mText.charAt(mPosition) == '\'')) {
+                char quote = mText.charAt(mPosition);
+                int end = mText.indexOf(quote, mPosition + 1);
+
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated string at " + mPosition);
+                }
+
+                String string = mText.substring(mPosition + 1, end);
+
+                mPosition = end + 1;
+
+                return string;
+            }
+
+            return readIdentifier();
+        }
+    }
+}
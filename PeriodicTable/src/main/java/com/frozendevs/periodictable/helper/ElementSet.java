@@ -0,0 +1,104 @@
+package com.frozendevs.periodictable.helper;
+
+/**
+ * A set of atomic numbers below 128, kept as a 128-bit bitset. All operations modify the set in
+ * place, so combining sets never allocates.
+ */
+public class ElementSet {
+
+    public static final int CAPACITY = 128;
+
+    private long mLow, mHigh;
+
+    public ElementSet() {
+    }
+
+    ElementSet(long low, long high) {
+        mLow = low;
+        mHigh = high;
+    }
+
+    long getLow() {
+        return mLow;
+    }
+
+    long getHigh() {
+        return mHigh;
+    }
+
+    public boolean contains(int number) {
+        if (number < 0 || number >= CAPACITY) {
+            return false;
+        }
+
+        return ((number < 64 ? mLow : mHigh) & (1L << number)) != 0;
+    }
+
+    public void add(int number) {
+        if (number < 0 || number >= CAPACITY) {
+            throw new IllegalArgumentException("Atomic number out of range: " + number);
+        }
+
+        if (number < 64) {
+            mLow |= 1L << number;
+        } else {
+            mHigh |= 1L << number;
+        }
+    }
+
+    /**
+     * Replaces the contents of this set with the contents of the given one.
+     */
+    public void set(ElementSet set) {
+        mLow = set.mLow;
+        mHigh = set.mHigh;
+    }
+
+    /**
+     * Union with the given set.
+     */
+    public void or(ElementSet set) {
+        mLow |= set.mLow;
+        mHigh |= set.mHigh;
+    }
+
+    /**
+     * Intersection with the given set.
+     */
+    public void and(ElementSet set) {
+        mLow &= set.mLow;
+        mHigh &= set.mHigh;
+    }
+
+    /**
+     * Difference with the given set.
+     */
+    public void andNot(ElementSet set) {
+        mLow &= ~set.mLow;
+        mHigh &= ~set.mHigh;
+    }
+
+    public void clear() {
+        mLow = 0;
+        mHigh = 0;
+    }
+
+    public boolean isEmpty() {
+        return mLow == 0 && mHigh == 0;
+    }
+
+    public int size() {
+        return Long.bitCount(mLow) + Long.bitCount(mHigh);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        return object instanceof ElementSet && ((ElementSet) object).mLow == mLow &&
+                ((ElementSet) object).mHigh == mHigh;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (mLow ^ (mLow >>> 32) ^ mHigh ^ (mHigh >>> 32));
+    }
+}
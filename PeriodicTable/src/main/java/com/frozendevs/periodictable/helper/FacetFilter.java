@@ -0,0 +1,102 @@
+package com.frozendevs.periodictable.helper;
+
+import android.database.DataSetObservable;
+
+import com.frozendevs.periodictable.model.Facet;
+
+/**
+ * The facet values picked by the user. Values of the same facet are combined with OR, facets are
+ * combined with AND, and both with the matches of the query typed in the search box, if any.
+ * Observers are notified whenever the selection changes. Must only be used on the main thread.
+ */
+public class FacetFilter extends DataSetObservable {
+
+    private static final Facet[] FACETS = Facet.values();
+
+    private int[] mSelections = new int[FACETS.length];
+    private ElementSet mFacetMatches = new ElementSet();
+    private ElementSet mQueryMatches = new ElementSet();
+    private boolean mHasQuery;
+
+    public boolean isSelected(Facet facet, int value) {
+        return (mSelections[facet.ordinal()] & (1 << value)) != 0;
+    }
+
+    public void setSelected(Facet facet, int value, boolean selected) {
+        if (selected) {
+            mSelections[facet.ordinal()] |= 1 << value;
+        } else {
+            mSelections[facet.ordinal()] &= ~(1 << value);
+        }
+
+        notifyChanged();
+    }
+
+    /**
+     * Only keeps the elements in the given set, the matches of an ElementQuery, or lifts that
+     * restriction if it is null. The set is copied.
+     */
+    public void setQueryMatches(ElementSet matches) {
+        if (matches == null ? mHasQuery : !mHasQuery || !mQueryMatches.equals(matches)) {
+            mHasQuery = matches != null;
+
+            if (matches != null) {
+                mQueryMatches.set(matches);
+            }
+
+            notifyChanged();
+        }
+    }
+
+    public boolean isEmpty() {
+        if (mHasQuery) {
+            return false;
+        }
+
+        for (int selection : mSelections) {
+            if (selection != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Clears the facet values picked, the query matches belong to the search box.
+     */
+    public void clear() {
+        for (int i = 0; i < mSelections.length; i++) {
+            mSelections[i] = 0;
+        }
+
+        notifyChanged();
+    }
+
+    /**
+     * Stores the elements matching the selection in result.
+     */
+    public void getMatches(Facets facets, ElementSet result) {
+        result.set(facets.getElements());
+
+        for (Facet facet : FACETS) {
+            int selection = mSelections[facet.ordinal()];
+
+            if (selection != 0) {
+                mFacetMatches.clear();
+
+                for (int value = 0; value < facet.getValuesCount(); value++) {
+                    if ((selection & (1 << value)) != 0) {
+                        mFacetMatches.or(facets.get(facet, value));
+                    }
+                }
+
+                result.and(mFacetMatches);
+            }
+        }
+
+        if (mHasQuery) {
+            result.and(mQueryMatches);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.frozendevs.periodictable.helper;
+
+import com.frozendevs.periodictable.model.ElementProperties;
+import com.frozendevs.periodictable.model.Facet;
+
+/**
+ * The set of elements having each value of each facet, precomputed when the database is loaded.
+ */
+public class Facets {
+
+    private ElementSet mElements;
+    private ElementSet[][] mSets;
+
+    Facets(ElementSet elements, ElementSet[][] sets) {
+        mElements = elements;
+        mSets = sets;
+    }
+
+    static Facets build(ElementProperties[] elements) {
+        Facet[] facets = Facet.values();
+
+        ElementSet all = new ElementSet();
+        ElementSet[][] sets = new ElementSet[facets.length][];
+
+        for (Facet facet : facets) {
+            sets[facet.ordinal()] = new ElementSet[facet.getValuesCount()];
+
+            for (int value = 0; value < facet.getValuesCount(); value++) {
+                sets[facet.ordinal()][value] = new ElementSet();
+            }
+        }
+
+        for (ElementProperties element : elements) {
+            all.add(element.getNumber());
+
+            for (Facet facet : facets) {
+                int value = facet.getValue(element);
+
+                if (value >= 0) {
+                    sets[facet.ordinal()][value].add(element.getNumber());
+                }
+            }
+        }
+
+        return new Facets(all, sets);
+    }
+
+    /**
+     * Returns all the elements. The set is shared and must not be modified.
+     */
+    public ElementSet getElements() {
+        return mElements;
+    }
+
+    /**
+     * Returns the elements with the given value of the facet. The set is shared and must not be
+     * modified.
+     */
+    public ElementSet get(Facet facet, int value) {
+        return mSets[facet.ordinal()][value];
+    }
+
+    ElementSet[][] getSets() {
+        return mSets;
+    }
+}
@@ -0,0 +1,320 @@
+package com.frozendevs.periodictable.helper;
+
+import com.frozendevs.periodictable.model.ElementListItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the elements whose name is within a small edit distance of a query, so that misspellings
+ * such as "flourine" or "praseodimium" still find the element. Only the names which share enough
+ * trigrams with the query are compared with it, using a bounded edit distance in which swapping
+ * two adjacent letters counts as one edit.
+ *
+ * A query is matched against the whole name and against every prefix of it, so a misspelled name
+ * is found while it is being typed. The names of every language of ElementNames are indexed too,
+ * folded by TextNormalizer like the query. All the buffers are allocated up front.
+ */
+public class FuzzyIndex {
+
+    private int[] mNumbers;
+    private char[][] mNames;
+    private boolean[] mLocalized;
+
+    /*
+     * Three characters packed into a long, sorted, with the indices of the names containing each.
+     */
+    private long[] mTrigrams;
+    private int[][] mPostings;
+
+    private char[] mQuery = new char[32];
+    private int[] mCounts;
+    private int[] mCandidates;
+    private int[] mDistances;
+    private int[] mPrefixes;
+    private int[][] mRows;
+    private ElementSet mFound = new ElementSet();
+
+    /**
+     * The names may be null to only index the English ones.
+     */
+    public FuzzyIndex(ElementListItem[] items, ElementNames names) {
+        List<Integer> numbers = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+
+        for (ElementListItem item : items) {
+            int first = keys.size();
+
+            numbers.add(item.getNumber());
+            keys.add(TextNormalizer.normalize(item.getName()));
+
+            /*
+             * A name spelled the same in another language is only indexed once.
+             */
+            for (int language = 0; names != null && language < names.getLanguagesCount();
+                 language++) {
+                String name = TextNormalizer.normalize(names.getName(language, item.getNumber()));
+
+                if (name != null && !keys.subList(first, keys.size()).contains(name)) {
+                    numbers.add(item.getNumber());
+                    keys.add(name);
+                }
+            }
+        }
+
+        mNumbers = new int[keys.size()];
+        mNames = new char[keys.size()][];
+        mLocalized = new boolean[keys.size()];
+
+        int maxLength = 0;
+        List<Long> trigrams = new ArrayList<>();
+
+        for (int i = 0; i < mNames.length; i++) {
+            mNumbers[i] = numbers.get(i);
+            mNames[i] = keys.get(i).toCharArray();
+            mLocalized[i] = i > 0 && mNumbers[i] == mNumbers[i - 1];
+
+            maxLength = Math.max(mNames[i].length, maxLength);
+
+            for (int position = 0; position < mNames[i].length; position++) {
+                trigrams.add(getTrigram(mNames[i], position));
+            }
+        }
+
+        long[] sortedTrigrams = new long[trigrams.size()];
+        int count = 0;
+
+        for (long trigram : trigrams) {
+            sortedTrigrams[count++] = trigram;
+        }
+
+        Arrays.sort(sortedTrigrams);
+
+        count = 0;
+        for (int i = 0; i < sortedTrigrams.length; i++) {
+            if (i == 0 || sortedTrigrams[i] != sortedTrigrams[i - 1]) {
+                sortedTrigrams[count++] = sortedTrigrams[i];
+            }
+        }
+
+        mTrigrams = Arrays.copyOf(sortedTrigrams, count);
+        mPostings = new int[count][];
+
+        /*
+         * The postings are counted first and then filled, in name order and without repeats.
+         */
+        int[] sizes = new int[count];
+        int[] lastNames = new int[count];
+        Arrays.fill(lastNames, -1);
+
+        for (int pass = 0; pass < 2; pass++) {
+            for (int name = 0; name < mNames.length; name++) {
+                for (int position = 0; position < mNames[name].length; position++) {
+                    int trigram = Arrays.binarySearch(mTrigrams,
+                            getTrigram(mNames[name], position));
+
+                    if (lastNames[trigram] != name) {
+                        lastNames[trigram] = name;
+
+                        if (pass == 0) {
+                            sizes[trigram]++;
+                        } else {
+                            mPostings[trigram][sizes[trigram]++] = name;
+                        }
+                    }
+                }
+            }
+
+            if (pass == 0) {
+                for (int trigram = 0; trigram < count; trigram++) {
+                    mPostings[trigram] = new int[sizes[trigram]];
+                }
+
+                Arrays.fill(sizes, 0);
+                Arrays.fill(lastNames, -1);
+            }
+        }
+
+        mCounts = new int[mNames.length];
+        mCandidates = new int[mNames.length];
+        mDistances = new int[mNames.length];
+        mPrefixes = new int[mNames.length];
+        mRows = new int[3][maxLength + 1];
+    }
+
+    /*
+     * The trigram ending at the given position, the text is padded with two spaces in front.
+     */
+    private static long getTrigram(char[] text, int position) {
+        long first = position >= 2 ? text[position - 2] : ' ';
+        long second = position >= 1 ? text[position - 1] : ' ';
+
+        return (first << 32) | (second << 16) | text[position];
+    }
+
+    /**
+     * Returns the largest number of edits allowed for a query of the given length.
+     */
+    public static int getMaxDistance(int length) {
+        if (length < 4) {
+            return 0;
+        }
+
+        return length < 7 ? 1 : 2;
+    }
+
+    /**
+     * Writes the atomic numbers of the elements with a name, or a prefix of it, within the allowed
+     * edit distance of the query into results, nearest first and then by the length of the prefix
+     * they share with the query. Each element is written once, for its nearest name. The length of
+     * that prefix is written into prefixes, or 0 if the nearest name is not the English one.
+     * Returns the number of elements found.
+     */
+    public synchronized int search(String query, int[] results, int[] prefixes) {
+        int length = query.length();
+        int maxDistance = getMaxDistance(length);
+
+        if (maxDistance == 0) {
+            return 0;
+        }
+
+        if (length > mQuery.length) {
+            mQuery = new char[length];
+        }
+
+        for (int i = 0; i < length; i++) {
+            mQuery[i] = Character.toLowerCase(query.charAt(i));
+        }
+
+        /*
+         * An edit changes at most four of the trigrams of the query, the names which share fewer
+         * than the rest cannot be close enough.
+         */
+        Arrays.fill(mCounts, 0);
+
+        for (int position = 0; position < length; position++) {
+            int trigram = Arrays.binarySearch(mTrigrams, getTrigram(mQuery, position));
+
+            if (trigram >= 0) {
+                for (int name : mPostings[trigram]) {
+                    mCounts[name]++;
+                }
+            }
+        }
+
+        int minCount = length - (4 * maxDistance);
+        int count = 0;
+
+        for (int name = 0; name < mNames.length; name++) {
+            if (mCounts[name] >= minCount) {
+                int distance = getDistance(mNames[name], length, maxDistance);
+
+                if (distance <= maxDistance) {
+                    int prefix = getCommonPrefix(mNames[name], length);
+
+                    /*
+                     * Insertion sort by distance, then by common prefix, then by atomic number.
+                     */
+                    int index = count++;
+
+                    while (index > 0 && (mDistances[index - 1] > distance ||
+                            (mDistances[index - 1] == distance &&
+                                    mPrefixes[index - 1] < prefix))) {
+                        mCandidates[index] = mCandidates[index - 1];
+                        mDistances[index] = mDistances[index - 1];
+                        mPrefixes[index] = mPrefixes[index - 1];
+                        index--;
+                    }
+
+                    mCandidates[index] = name;
+                    mDistances[index] = distance;
+                    mPrefixes[index] = prefix;
+                }
+            }
+        }
+
+        int found = 0;
+
+        mFound.clear();
+
+        for (int i = 0; i < count; i++) {
+            int number = mNumbers[mCandidates[i]];
+
+            if (!mFound.contains(number)) {
+                mFound.add(number);
+
+                results[found] = number;
+                prefixes[found++] = mLocalized[mCandidates[i]] ? 0 : mPrefixes[i];
+            }
+        }
+
+        return found;
+    }
+
+    /*
+     * The smallest edit distance between the query and any prefix of the name, or maxDistance + 1
+     * as soon as it is known to be larger than maxDistance.
+     */
+    private int getDistance(char[] name, int length, int maxDistance) {
+        int[] previous2 = mRows[0], previous = mRows[1], row = mRows[2];
+
+        for (int j = 0; j <= name.length; j++) {
+            row[j] = j;
+        }
+
+        int previousMin = Integer.MAX_VALUE;
+
+        for (int i = 1; i <= length; i++) {
+            int[] rotated = previous2;
+            previous2 = previous;
+            previous = row;
+            row = rotated;
+
+            char character = mQuery[i - 1];
+
+            row[0] = i;
+
+            int min = i;
+
+            for (int j = 1; j <= name.length; j++) {
+                int cost = character == name[j - 1] ? 0 : 1;
+
+                int distance = Math.min(Math.min(row[j - 1] + 1, previous[j] + 1),
+                        previous[j - 1] + cost);
+
+                if (i > 1 && j > 1 && character == name[j - 2] &&
+                        mQuery[i - 2] == name[j - 1]) {
+                    distance = Math.min(distance, previous2[j - 2] + 1);
+                }
+
+                row[j] = distance;
+                min = Math.min(distance, min);
+            }
+
+            if (min > maxDistance && previousMin > maxDistance) {
+                return maxDistance + 1;
+            }
+
+            previousMin = min;
+        }
+
+        int distance = Integer.MAX_VALUE;
+
+        for (int j = 0; j <= name.length; j++) {
+            distance = Math.min(row[j], distance);
+        }
+
+        return distance;
+    }
+
+    private int getCommonPrefix(char[] name, int length) {
+        int prefix = 0;
+
+        while (prefix < length && prefix < name.length && mQuery[prefix] == name[prefix]) {
+            prefix++;
+        }
+
+        return prefix;
+    }
+}
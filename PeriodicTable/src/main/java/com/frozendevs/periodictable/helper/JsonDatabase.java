@@ -0,0 +1,222 @@
+package com.frozendevs.periodictable.helper;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+
+import com.frozendevs.periodictable.R;
+import com.frozendevs.periodictable.model.ElementProperties;
+import com.frozendevs.periodictable.model.Isotope;
+import com.frozendevs.periodictable.model.TableItem;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streams the elements straight from R.raw.database. Used when the compiled database asset is not
+ * available.
+ */
+class JsonDatabase extends Database {
+
+    private static final String FIELD_ISOTOPES = "isotopes";
+
+    private Context mContext;
+    private ElementProperties[] mElements;
+    private int[] mIndices = new int[0];
+
+    JsonDatabase(Context context) {
+        super(context);
+
+        mContext = context.getApplicationContext();
+    }
+
+    /**
+     * Parses the elements the first time they are needed, which is only when the table items are
+     * not in the snapshot yet or somebody asks for the properties of an element.
+     */
+    private synchronized ElementProperties[] getElements() {
+        if (mElements == null) {
+            mElements = readElements();
+        }
+
+        return mElements;
+    }
+
+    /**
+     * The parsed elements are only held here, the table items are copies of their few table
+     * fields, so dropping them releases every property of every element. Parsing them again
+     * takes a whole pass over the file, so they are only dropped once the process is in the
+     * background, together with the properties cache.
+     */
+    @Override
+    protected synchronized void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            mElements = null;
+        }
+    }
+
+    private ElementProperties[] readElements() {
+        ElementProperties[] elements = new ElementProperties[0];
+
+        JsonReader reader = null;
+
+        try {
+            reader = openReader();
+
+            Gson gson = createGson();
+
+            List<ElementProperties> list = new ArrayList<ElementProperties>();
+
+            reader.beginArray();
+
+            while (reader.hasNext()) {
+                list.add((ElementProperties) gson.fromJson(reader, ElementProperties.class));
+            }
+
+            reader.endArray();
+
+            elements = list.toArray(new ElementProperties[list.size()]);
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            closeReader(reader);
+        }
+
+        int maxNumber = 0;
+        for (ElementProperties element : elements) {
+            maxNumber = Math.max(element.getNumber(), maxNumber);
+        }
+
+        mIndices = new int[maxNumber + 1];
+        Arrays.fill(mIndices, -1);
+
+        for (int i = 0; i < elements.length; i++) {
+            mIndices[elements[i].getNumber()] = i;
+        }
+
+        return elements;
+    }
+
+    /**
+     * Creates a Gson instance which passes every string it reads through a new StringPool, so that
+     * repeated property values share one instance.
+     */
+    private static Gson createGson() {
+        final StringPool stringPool = new StringPool();
+
+        return new GsonBuilder().registerTypeAdapter(String.class, new TypeAdapter<String>() {
+            @Override
+            public void write(JsonWriter out, String value) throws IOException {
+                out.value(value);
+            }
+
+            @Override
+            public String read(JsonReader in) throws IOException {
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+
+                    return null;
+                }
+
+                return stringPool.intern(in.nextString());
+            }
+        }).create();
+    }
+
+    private JsonReader openReader() throws IOException {
+        return new JsonReader(new InputStreamReader(
+                mContext.getResources().openRawResource(R.raw.database), "UTF-8"));
+    }
+
+    private void closeReader(JsonReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private Isotope[] readIsotopes(int index) {
+        JsonReader reader = null;
+
+        try {
+            reader = openReader();
+
+            reader.beginArray();
+
+            for (int i = 0; i < index; i++) {
+                reader.skipValue();
+            }
+
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                if (reader.nextName().equals(FIELD_ISOTOPES)) {
+                    return createGson().fromJson(reader, Isotope[].class);
+                }
+
+                reader.skipValue();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            closeReader(reader);
+        }
+
+        return new Isotope[0];
+    }
+
+    @Override
+    protected TableItem[] loadTableItems() {
+        ElementProperties[] elements = getElements();
+
+        /*
+         * Copied, so that the items do not keep the parsed elements with all their properties.
+         */
+        TableItem[] items = new TableItem[elements.length];
+
+        for (int i = 0; i < elements.length; i++) {
+            items[i] = new TableItem(elements[i].getName(), elements[i].getSymbol(),
+                    elements[i].getNumber(), elements[i].getStandardAtomicWeight(),
+                    elements[i].getGroup(), elements[i].getPeriod(), elements[i].getCategory());
+        }
+
+        return items;
+    }
+
+    private int getIndex(int element) {
+        getElements();
+
+        return element > 0 && element < mIndices.length ? mIndices[element] : -1;
+    }
+
+    @Override
+    protected ElementProperties loadElementProperties(int element) {
+        int index = getIndex(element);
+
+        return index >= 0 ? getElements()[index] : null;
+    }
+
+    /**
+     * Isotopes make up most of the file, so they are skipped while streaming the elements and read
+     * on demand by seeking to the element again.
+     */
+    @Override
+    public Isotope[] getIsotopes(int element) {
+        int index = getIndex(element);
+
+        return index >= 0 ? readIsotopes(index) : new Isotope[0];
+    }
+}
@@ -0,0 +1,130 @@
+package com.frozendevs.periodictable.helper;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * A binary asset compiled by the compileDatabase Gradle task. The asset is stored uncompressed so it
+ * can be mapped straight from the APK. Every asset starts with a magic number and a version and
+ * ends with its string table: int[strings + 1] offsets relative to a UTF-8 string heap.
+ *
+ * The string table is deduplicated at build time, so it doubles as the string pool of the asset:
+ * every string is decoded once and the same instance is handed to all the models that refer to it.
+ */
+class MappedAsset {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private ByteBuffer mBuffer;
+    private byte[] mStringBuffer = new byte[256];
+    private String[] mStrings = new String[0];
+    private int mStringOffsetsOffset;
+    private int mStringHeapOffset;
+
+    MappedAsset(Context context, String name, int magic, int version) throws IOException {
+        mBuffer = openAsset(context, name);
+
+        if (mBuffer.getInt(0) != magic || mBuffer.getInt(4) != version) {
+            throw new IOException("Unsupported format of " + name);
+        }
+    }
+
+    private static ByteBuffer openAsset(Context context, String name) throws IOException {
+        try {
+            AssetFileDescriptor descriptor = context.getAssets().openFd(name);
+            FileInputStream inputStream = descriptor.createInputStream();
+
+            try {
+                return inputStream.getChannel().map(FileChannel.MapMode.READ_ONLY,
+                        descriptor.getStartOffset(), descriptor.getLength());
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            /*
+             * The asset can only be mapped when it is stored uncompressed, otherwise read it.
+             */
+            InputStream inputStream = context.getAssets().open(name);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+            try {
+                byte[] buffer = new byte[8192];
+                int length;
+
+                while ((length = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, length);
+                }
+            } finally {
+                inputStream.close();
+            }
+
+            return ByteBuffer.wrap(outputStream.toByteArray());
+        }
+    }
+
+    void setStringTable(int offset, int count) throws IOException {
+        mStringOffsetsOffset = offset;
+        mStringHeapOffset = offset + ((count + 1) * 4);
+
+        if (mStringHeapOffset > mBuffer.limit()) {
+            throw new IOException("Truncated asset");
+        }
+
+        mStrings = new String[count];
+    }
+
+    int getInt(int offset) {
+        return mBuffer.getInt(offset);
+    }
+
+    short getShort(int offset) {
+        return mBuffer.getShort(offset);
+    }
+
+    byte getByte(int offset) {
+        return mBuffer.get(offset);
+    }
+
+    synchronized String getString(int id) {
+        if (mStrings[id] == null) {
+            mStrings[id] = decodeString(id);
+        }
+
+        return mStrings[id];
+    }
+
+    /**
+     * Forgets the decoded strings but the given ones, the others are decoded again when needed.
+     * The strings decoded later are new instances, so the strings of the models which stay in
+     * memory are passed back in with their ids to keep them shared.
+     */
+    synchronized void clearStrings(int[] keptIds, String[] keptStrings) {
+        mStrings = new String[mStrings.length];
+
+        for (int i = 0; i < keptIds.length; i++) {
+            mStrings[keptIds[i]] = keptStrings[i];
+        }
+    }
+
+    private String decodeString(int id) {
+        int offset = mBuffer.getInt(mStringOffsetsOffset + (id * 4));
+        int length = mBuffer.getInt(mStringOffsetsOffset + ((id + 1) * 4)) - offset;
+
+        if (length > mStringBuffer.length) {
+            mStringBuffer = new byte[length];
+        }
+
+        mBuffer.position(mStringHeapOffset + offset);
+        mBuffer.get(mStringBuffer, 0, length);
+
+        return new String(mStringBuffer, 0, length, UTF_8);
+    }
+}
@@ -0,0 +1,332 @@
+package com.frozendevs.periodictable.helper;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+
+import com.frozendevs.periodictable.model.ElementProperties;
+import com.frozendevs.periodictable.model.Isotope;
+import com.frozendevs.periodictable.model.TableItem;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the elements from the binary assets compiled from R.raw.database by the compileDatabase
+ * Gradle task (see database.gradle). All integers are big-endian and the sections of database.bin
+ * follow each other in this order:
+ *
+ * <pre>
+ * header           magic, version, elements, fields, strings (int each)
+ * field names      int[fields], string ids
+ * numbers          short[elements], rows are sorted by atomic number
+ * groups           byte[elements]
+ * periods          byte[elements]
+ * categories       byte[elements]
+ * directory        int[elements * fields], string ids of every row
+ * string table     int[strings + 1] offsets, UTF-8 string heap
+ * </pre>
+ *
+ * Isotopes are kept in isotopes.bin, which is only opened once somebody asks for them:
+ *
+ * <pre>
+ * header           magic, version, atomic numbers, fields, isotopes, strings (int each)
+ * field names      int[fields], string ids
+ * isotope index    int[atomic numbers + 1], first isotope of every atomic number
+ * isotopes         int[isotopes * fields], string ids of every isotope
+ * string table     int[strings + 1] offsets, UTF-8 string heap
+ * </pre>
+ */
+public class MappedDatabase extends Database {
+
+    private static final String ASSET_NAME = "database.bin";
+    private static final int MAGIC = 0x50544442;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 5 * 4;
+
+    private static final String ISOTOPES_ASSET_NAME = "isotopes.bin";
+    private static final int ISOTOPES_MAGIC = 0x50544953;
+    private static final int ISOTOPES_VERSION = 1;
+    private static final int ISOTOPES_HEADER_SIZE = 6 * 4;
+
+    private Context mContext;
+    private MappedAsset mAsset;
+
+    private int mElementsCount;
+    private int mFieldsCount;
+
+    private int mNumbersOffset;
+    private int mGroupsOffset;
+    private int mPeriodsOffset;
+    private int mCategoriesOffset;
+    private int mDirectoryOffset;
+
+    private Map<String, Integer> mFields = new HashMap<String, Integer>();
+    private int[] mRows = new int[0];
+
+    private int mNameField, mSymbolField, mWeightField;
+
+    /*
+     * The field of every one of ElementProperties.PROPERTIES, or -1 if the asset does not have it.
+     */
+    private int[] mPropertyFields;
+
+    private MappedAsset mIsotopesAsset;
+    private int mIsotopesNumbersCount;
+    private int mIsotopeIndexOffset;
+    private int mIsotopesOffset;
+    private int mIsotopeFieldsCount;
+    private int[] mIsotopePropertyFields;
+
+    MappedDatabase(Context context) throws IOException {
+        super(context);
+
+        mContext = context.getApplicationContext();
+
+        mAsset = new MappedAsset(mContext, ASSET_NAME, MAGIC, VERSION);
+
+        mElementsCount = mAsset.getInt(8);
+        mFieldsCount = mAsset.getInt(12);
+
+        int fieldNamesOffset = HEADER_SIZE;
+        mNumbersOffset = fieldNamesOffset + (mFieldsCount * 4);
+        mGroupsOffset = mNumbersOffset + (mElementsCount * 2);
+        mPeriodsOffset = mGroupsOffset + mElementsCount;
+        mCategoriesOffset = mPeriodsOffset + mElementsCount;
+        mDirectoryOffset = mCategoriesOffset + mElementsCount;
+
+        mAsset.setStringTable(mDirectoryOffset + (mElementsCount * mFieldsCount * 4),
+                mAsset.getInt(16));
+
+        for (int field = 0; field < mFieldsCount; field++) {
+            mFields.put(mAsset.getString(mAsset.getInt(fieldNamesOffset + (field * 4))), field);
+        }
+
+        mNameField = getField("name");
+        mSymbolField = getField("symbol");
+        mWeightField = getField("weight");
+
+        mPropertyFields = new int[ElementProperties.PROPERTIES.length];
+        for (int property = 0; property < mPropertyFields.length; property++) {
+            mPropertyFields[property] = getField(ElementProperties.PROPERTIES[property]);
+        }
+
+        if (mElementsCount > 0) {
+            mRows = new int[getNumberAt(mElementsCount - 1) + 1];
+            Arrays.fill(mRows, -1);
+
+            for (int row = 0; row < mElementsCount; row++) {
+                mRows[getNumberAt(row)] = row;
+            }
+        }
+    }
+
+    private synchronized MappedAsset getIsotopesAsset() throws IOException {
+        if (mIsotopesAsset == null) {
+            MappedAsset asset = new MappedAsset(mContext, ISOTOPES_ASSET_NAME, ISOTOPES_MAGIC,
+                    ISOTOPES_VERSION);
+
+            mIsotopesNumbersCount = asset.getInt(8);
+            int fieldsCount = asset.getInt(12);
+            int isotopesCount = asset.getInt(16);
+
+            int fieldNamesOffset = ISOTOPES_HEADER_SIZE;
+            mIsotopeIndexOffset = fieldNamesOffset + (fieldsCount * 4);
+            mIsotopesOffset = mIsotopeIndexOffset + ((mIsotopesNumbersCount + 1) * 4);
+
+            asset.setStringTable(mIsotopesOffset + (isotopesCount * fieldsCount * 4),
+                    asset.getInt(20));
+
+            Map<String, Integer> fields = new HashMap<String, Integer>();
+            for (int field = 0; field < fieldsCount; field++) {
+                fields.put(asset.getString(asset.getInt(fieldNamesOffset + (field * 4))), field);
+            }
+
+            mIsotopeFieldsCount = fieldsCount;
+            mIsotopePropertyFields = new int[Isotope.PROPERTIES.length];
+            for (int property = 0; property < mIsotopePropertyFields.length; property++) {
+                Integer field = fields.get(Isotope.PROPERTIES[property]);
+
+                mIsotopePropertyFields[property] = field != null ? field : -1;
+            }
+
+            mIsotopesAsset = asset;
+        }
+
+        return mIsotopesAsset;
+    }
+
+    @Override
+    protected void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+
+        /*
+         * The decoded strings are only dropped together with the cached properties which refer
+         * to them. The table items stay in memory, so their strings are kept and the properties
+         * built afterwards share them rather than decode copies.
+         */
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            TableItem[] items = getTableItems();
+
+            int[] ids = new int[items.length * 3];
+            String[] strings = new String[ids.length];
+            int count = 0;
+
+            for (TableItem item : items) {
+                int row = getRow(item.getNumber());
+
+                if (row >= 0) {
+                    ids[count] = getStringIdAt(row, mNameField);
+                    strings[count++] = item.getName();
+                    ids[count] = getStringIdAt(row, mSymbolField);
+                    strings[count++] = item.getSymbol();
+                    ids[count] = getStringIdAt(row, mWeightField);
+                    strings[count++] = item.getStandardAtomicWeight();
+                }
+            }
+
+            mAsset.clearStrings(Arrays.copyOf(ids, count), Arrays.copyOf(strings, count));
+
+            synchronized (this) {
+                mIsotopesAsset = null;
+            }
+        }
+    }
+
+    private int getNumberAt(int row) {
+        return mAsset.getShort(mNumbersOffset + (row * 2));
+    }
+
+    private int getRow(int number) {
+        return number > 0 && number < mRows.length ? mRows[number] : -1;
+    }
+
+    /*
+     * The row of an element which has to be in the database.
+     */
+    private int getExistingRow(int number) {
+        int row = getRow(number);
+
+        if (row < 0) {
+            throw new IllegalArgumentException("Unknown atomic number: " + number);
+        }
+
+        return row;
+    }
+
+    /**
+     * Returns the index of the named string field, or -1 if there is no such field.
+     */
+    public int getField(String name) {
+        Integer field = mFields.get(name);
+
+        return field != null ? field : -1;
+    }
+
+    public boolean contains(int number) {
+        return getRow(number) >= 0;
+    }
+
+    public int getGroup(int number) {
+        return mAsset.getByte(mGroupsOffset + getExistingRow(number));
+    }
+
+    public int getPeriod(int number) {
+        return mAsset.getByte(mPeriodsOffset + getExistingRow(number));
+    }
+
+    public int getCategory(int number) {
+        return mAsset.getByte(mCategoriesOffset + getExistingRow(number));
+    }
+
+    /**
+     * Returns the given string field of an element, which must be in the database.
+     */
+    public String getString(int number, int field) {
+        return getStringAt(getExistingRow(number), field);
+    }
+
+    private String getStringAt(int row, int field) {
+        return mAsset.getString(getStringIdAt(row, field));
+    }
+
+    private int getStringIdAt(int row, int field) {
+        return mAsset.getInt(mDirectoryOffset + (((row * mFieldsCount) + field) * 4));
+    }
+
+    private TableItem getTableItemAt(int row) {
+        return new TableItem(getStringAt(row, mNameField), getStringAt(row, mSymbolField),
+                getNumberAt(row), getStringAt(row, mWeightField),
+                mAsset.getByte(mGroupsOffset + row), mAsset.getByte(mPeriodsOffset + row),
+                mAsset.getByte(mCategoriesOffset + row));
+    }
+
+    @Override
+    protected TableItem[] loadTableItems() {
+        TableItem[] items = new TableItem[mElementsCount];
+
+        for (int row = 0; row < mElementsCount; row++) {
+            items[row] = getTableItemAt(row);
+        }
+
+        return items;
+    }
+
+    @Override
+    protected ElementProperties loadElementProperties(int element) {
+        int row = getRow(element);
+
+        if (row < 0) {
+            return null;
+        }
+
+        String[] values = new String[mPropertyFields.length];
+
+        for (int property = 0; property < values.length; property++) {
+            if (mPropertyFields[property] >= 0) {
+                values[property] = getStringAt(row, mPropertyFields[property]);
+            }
+        }
+
+        return new ElementProperties(getTableItemAt(row), values);
+    }
+
+    @Override
+    public Isotope[] getIsotopes(int element) {
+        try {
+            MappedAsset asset = getIsotopesAsset();
+
+            if (element <= 0 || element >= mIsotopesNumbersCount) {
+                return new Isotope[0];
+            }
+
+            int first = asset.getInt(mIsotopeIndexOffset + (element * 4));
+            int last = asset.getInt(mIsotopeIndexOffset + ((element + 1) * 4));
+
+            Isotope[] isotopes = new Isotope[last - first];
+
+            for (int i = 0; i < isotopes.length; i++) {
+                int offset = mIsotopesOffset + ((first + i) * mIsotopeFieldsCount * 4);
+
+                String[] values = new String[mIsotopePropertyFields.length];
+
+                for (int property = 0; property < values.length; property++) {
+                    int field = mIsotopePropertyFields[property];
+
+                    if (field >= 0) {
+                        values[property] = asset.getString(asset.getInt(offset + (field * 4)));
+                    }
+                }
+
+                isotopes[i] = new Isotope(values);
+            }
+
+            return isotopes;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return new Isotope[0];
+    }
+}
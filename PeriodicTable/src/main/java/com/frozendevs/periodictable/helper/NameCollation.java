@@ -0,0 +1,70 @@
+package com.frozendevs.periodictable.helper;
+
+import com.frozendevs.periodictable.model.ElementListItem;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sorts the elements by name the way the rules of a locale order them. The collation key of every
+ * name is computed once per locale, and the ranks they sort to are kept as a sorted index, so
+ * sorting the list never calls the collator.
+ */
+public class NameCollation {
+
+    private ElementListItem[] mItems;
+    private int mMaxNumber;
+    private Map<Locale, SortedIndex> mSortedIndexes = new HashMap<>();
+
+    NameCollation(ElementListItem[] items) {
+        mItems = items;
+
+        for (ElementListItem item : items) {
+            mMaxNumber = Math.max(item.getNumber(), mMaxNumber);
+        }
+    }
+
+    public synchronized SortedIndex getSortedIndex(Locale locale) {
+        SortedIndex sortedIndex = mSortedIndexes.get(locale);
+
+        if (sortedIndex == null) {
+            Collator collator = Collator.getInstance(locale);
+
+            final CollationKey[] keys = new CollationKey[mItems.length];
+            int[] numbers = new int[mItems.length];
+
+            for (int i = 0; i < mItems.length; i++) {
+                keys[i] = collator.getCollationKey(mItems[i].getName());
+                numbers[i] = mItems[i].getNumber();
+            }
+
+            Integer[] order = new Integer[mItems.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer lhs, Integer rhs) {
+                    return keys[lhs].compareTo(keys[rhs]);
+                }
+            });
+
+            double[] column = new double[mMaxNumber + 1];
+            Arrays.fill(column, Double.NaN);
+
+            for (int rank = 0; rank < order.length; rank++) {
+                column[numbers[order[rank]]] = rank;
+            }
+
+            mSortedIndexes.put(locale, sortedIndex = new SortedIndex(column));
+        }
+
+        return sortedIndex;
+    }
+}
@@ -0,0 +1,192 @@
+package com.frozendevs.periodictable.helper;
+
+import com.frozendevs.periodictable.model.ElementProperties;
+import com.frozendevs.periodictable.model.NumericProperty;
+
+import java.util.Arrays;
+
+/**
+ * The numeric properties of all the elements, parsed once from their display strings into one
+ * column per property indexed by atomic number. Unknown values are NaN.
+ */
+public class NumericColumns {
+
+    private static final String SUPERSCRIPT_DIGITS = "⁰¹²³⁴⁵⁶⁷⁸⁹";
+    private static final char SUPERSCRIPT_MINUS = '⁻';
+    private static final char MINUS = '−';
+    private static final String TIMES_TEN = "×10";
+
+    private double[][] mColumns;
+    private SortedIndex[] mSortedIndexes;
+
+    NumericColumns(double[][] columns) {
+        mColumns = columns;
+        mSortedIndexes = new SortedIndex[columns.length];
+    }
+
+    static NumericColumns build(ElementProperties[] elements) {
+        int maxNumber = 0;
+        for (ElementProperties element : elements) {
+            maxNumber = Math.max(element.getNumber(), maxNumber);
+        }
+
+        NumericProperty[] properties = NumericProperty.values();
+
+        double[][] columns = new double[properties.length][maxNumber + 1];
+
+        for (NumericProperty property : properties) {
+            double[] column = columns[property.ordinal()];
+
+            Arrays.fill(column, Double.NaN);
+
+            for (ElementProperties element : elements) {
+                column[element.getNumber()] = parse(property.getValue(element),
+                        property == NumericProperty.MELTING_POINT ||
+                                property == NumericProperty.BOILING_POINT);
+            }
+        }
+
+        return new NumericColumns(columns);
+    }
+
+    /**
+     * Returns the first number of a display string such as "20.271 K / −252.879 °C / −423.182 °F",
+     * "Pauling scale: 2.20", "[98]" or "0.08988×10⁻³ g·cm⁻³", or NaN if there is none. Values
+     * listed per allotrope or condition, one per line, use the first line.
+     */
+    static double parse(String value) {
+        return parse(value, false);
+    }
+
+    /**
+     * Like parse(String), but a temperature is converted to kelvins from the unit following it,
+     * as some are only given in °C. A temperature without a known unit is NaN.
+     */
+    static double parse(String value, boolean temperature) {
+        if (value == null) {
+            return Double.NaN;
+        }
+
+        int end = value.indexOf('\n');
+        if (end < 0) {
+            end = value.length();
+        }
+
+        int start = Math.max(value.lastIndexOf(':', end - 1), value.lastIndexOf('=', end - 1)) + 1;
+
+        int digits = start;
+        while (digits < end && !Character.isDigit(value.charAt(digits))) {
+            digits++;
+        }
+
+        if (digits == end) {
+            return Double.NaN;
+        }
+
+        int index = digits;
+        while (index < end && (Character.isDigit(value.charAt(index)) ||
+                value.charAt(index) == '.')) {
+            index++;
+        }
+
+        double number;
+
+        try {
+            number = Double.parseDouble(value.substring(digits, index));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+
+        if (digits > start && (value.charAt(digits - 1) == MINUS ||
+                value.charAt(digits - 1) == '-') && (digits - 1 == start ||
+                Character.isWhitespace(value.charAt(digits - 2)))) {
+            number = -number;
+        }
+
+        if (value.startsWith(TIMES_TEN, index)) {
+            index += TIMES_TEN.length();
+
+            boolean negative = index < end && value.charAt(index) == SUPERSCRIPT_MINUS;
+            if (negative) {
+                index++;
+            }
+
+            int exponent = 0;
+            int digit;
+            while (index < end && (digit = SUPERSCRIPT_DIGITS.indexOf(value.charAt(index))) >= 0) {
+                exponent = (exponent * 10) + digit;
+                index++;
+            }
+
+            number *= Math.pow(10, negative ? -exponent : exponent);
+        }
+
+        if (temperature) {
+            return toKelvins(number, value, index, end);
+        }
+
+        return number;
+    }
+
+    /*
+     * Reads the unit of the temperature, which may follow a range or an uncertainty such as
+     * "637–780 K" or "350±30 K" rather than the number itself, but comes before the next value.
+     */
+    private static double toKelvins(double number, String value, int index, int end) {
+        int slash = value.indexOf('/', index);
+        if (slash >= 0 && slash < end) {
+            end = slash;
+        }
+
+        for (; index < end; index++) {
+            char c = value.charAt(index);
+
+            if (c == '°' && index + 1 < end) {
+                switch (value.charAt(index + 1)) {
+                    case 'C':
+                        return number + 273.15;
+
+                    case 'F':
+                        return ((number - 32) * 5 / 9) + 273.15;
+                }
+            } else if (c == 'K' && Character.isWhitespace(value.charAt(index - 1))) {
+                return number;
+            }
+        }
+
+        return Double.NaN;
+    }
+
+    public int size() {
+        return mColumns.length > 0 ? mColumns[0].length : 0;
+    }
+
+    public double get(NumericProperty property, int number) {
+        double[] column = mColumns[property.ordinal()];
+
+        return number >= 0 && number < column.length ? column[number] : Double.NaN;
+    }
+
+    /**
+     * Returns the column of the given property, indexed by atomic number. The array is shared and
+     * must not be modified.
+     */
+    public double[] getColumn(NumericProperty property) {
+        return mColumns[property.ordinal()];
+    }
+
+    /**
+     * Returns the elements sorted by the given property, the index is built on first use.
+     */
+    public synchronized SortedIndex getSortedIndex(NumericProperty property) {
+        if (mSortedIndexes[property.ordinal()] == null) {
+            mSortedIndexes[property.ordinal()] = new SortedIndex(getColumn(property));
+        }
+
+        return mSortedIndexes[property.ordinal()];
+    }
+
+    double[][] getColumns() {
+        return mColumns;
+    }
+}
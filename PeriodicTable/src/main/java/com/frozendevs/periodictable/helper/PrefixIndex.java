@@ -0,0 +1,234 @@
+package com.frozendevs.periodictable.helper;
+
+import com.frozendevs.periodictable.model.ElementListItem;
+
+import java.util.Arrays;
+
+/**
+ * A prefix trie over the symbol, names and atomic number of every element, folded by
+ * TextNormalizer, with the names in every language of ElementNames. Each node
+ * keeps the elements whose symbol equals its prefix, whose symbol, number, English name or name in
+ * another language starts with it, as 128-bit sets packed into one long array.
+ *
+ * The path of the previous query is kept, so a query which extends or shortens it only walks the
+ * characters which changed.
+ */
+public class PrefixIndex {
+
+    /**
+     * What matched the query, written by search() next to each element it found.
+     */
+    public static final int EXACT_SYMBOL = 0;
+    public static final int SYMBOL = 1;
+    public static final int NUMBER = 2;
+    public static final int NAME = 3;
+    public static final int LOCALIZED_NAME = 4;
+
+    private static final int SETS = 5;
+
+    private char[] mLabels = new char[256];
+    private int[] mFirstChildren = new int[256];
+    private int[] mNextSiblings = new int[256];
+    private long[] mSets = new long[256 * SETS * 2];
+    private int mNodesCount;
+
+    private int[] mPath;
+    private char[] mPathLabels;
+    private int mPathLength;
+
+    /**
+     * The names may be null to only index the English ones.
+     */
+    public PrefixIndex(ElementListItem[] items, ElementNames names) {
+        int maxLength = 0;
+
+        addNode('\0');
+
+        for (ElementListItem item : items) {
+            String symbol = TextNormalizer.normalize(item.getSymbol());
+            String name = TextNormalizer.normalize(item.getName());
+            String number = Integer.toString(item.getNumber());
+
+            add(symbol, item.getNumber(), SYMBOL, EXACT_SYMBOL);
+            add(number, item.getNumber(), NUMBER, -1);
+            add(name, item.getNumber(), NAME, -1);
+
+            maxLength = Math.max(Math.max(Math.max(symbol.length(), name.length()),
+                    number.length()), maxLength);
+
+            for (int language = 0; names != null && language < names.getLanguagesCount();
+                 language++) {
+                String localizedName = TextNormalizer.normalize(
+                        names.getName(language, item.getNumber()));
+
+                if (localizedName != null) {
+                    add(localizedName, item.getNumber(), LOCALIZED_NAME, -1);
+
+                    maxLength = Math.max(localizedName.length(), maxLength);
+                }
+            }
+        }
+
+        mLabels = Arrays.copyOf(mLabels, mNodesCount);
+        mFirstChildren = Arrays.copyOf(mFirstChildren, mNodesCount);
+        mNextSiblings = Arrays.copyOf(mNextSiblings, mNodesCount);
+        mSets = Arrays.copyOf(mSets, mNodesCount * SETS * 2);
+
+        mPath = new int[maxLength + 1];
+        mPathLabels = new char[maxLength];
+    }
+
+    private int addNode(char label) {
+        if (mNodesCount == mLabels.length) {
+            int capacity = mNodesCount * 2;
+
+            mLabels = Arrays.copyOf(mLabels, capacity);
+            mFirstChildren = Arrays.copyOf(mFirstChildren, capacity);
+            mNextSiblings = Arrays.copyOf(mNextSiblings, capacity);
+            mSets = Arrays.copyOf(mSets, capacity * SETS * 2);
+        }
+
+        mLabels[mNodesCount] = label;
+        mFirstChildren[mNodesCount] = -1;
+        mNextSiblings[mNodesCount] = -1;
+
+        return mNodesCount++;
+    }
+
+    /*
+     * Adds the element to the given set of every node along the key, and to the terminal set of
+     * the last node unless it is -1.
+     */
+    private void add(String key, int number, int set, int terminalSet) {
+        int node = 0;
+
+        addToSet(node, set, number);
+
+        for (int i = 0; i < key.length(); i++) {
+            int child = getChild(node, key.charAt(i));
+
+            if (child < 0) {
+                child = addNode(key.charAt(i));
+
+                mNextSiblings[child] = mFirstChildren[node];
+                mFirstChildren[node] = child;
+            }
+
+            node = child;
+
+            addToSet(node, set, number);
+        }
+
+        if (terminalSet >= 0) {
+            addToSet(node, terminalSet, number);
+        }
+    }
+
+    private void addToSet(int node, int set, int number) {
+        if (number < 0 || number >= ElementSet.CAPACITY) {
+            throw new IllegalArgumentException("Atomic number out of range: " + number);
+        }
+
+        mSets[(((node * SETS) + set) * 2) + (number >>> 6)] |= 1L << number;
+    }
+
+    private int getChild(int node, char label) {
+        for (int child = mFirstChildren[node]; child >= 0; child = mNextSiblings[child]) {
+            if (mLabels[child] == label) {
+                return child;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Writes the atomic numbers of the elements matching the query, folded by TextNormalizer, into
+     * results: the element whose symbol is the query, then those whose symbol or atomic number
+     * starts with it and then those with a name which starts with it, each group in atomic number
+     * order. What matched each of them is written into matches, the English name before the
+     * others. Returns the number of elements found.
+     */
+    public synchronized int search(String query, int[] results, int[] matches) {
+        int length = query.length();
+
+        if (length > mPathLabels.length) {
+            return 0;
+        }
+
+        /*
+         * Keeps the part of the previous path the query shares and walks the rest.
+         */
+        int depth = 0;
+        while (depth < mPathLength && depth < length &&
+                mPathLabels[depth] == Character.toLowerCase(query.charAt(depth))) {
+            depth++;
+        }
+
+        mPathLength = depth;
+
+        for (; depth < length; depth++) {
+            char label = Character.toLowerCase(query.charAt(depth));
+
+            int child = getChild(mPath[depth], label);
+
+            if (child < 0) {
+                return 0;
+            }
+
+            mPath[depth + 1] = child;
+            mPathLabels[depth] = label;
+            mPathLength = depth + 1;
+        }
+
+        int offset = mPath[length] * SETS * 2;
+        int count = 0;
+
+        for (int word = 0; word < 2; word++) {
+            count = addNumbers(getSet(offset, EXACT_SYMBOL, word), 0L, word, EXACT_SYMBOL, -1,
+                    results, matches, count);
+        }
+
+        for (int word = 0; word < 2; word++) {
+            long exact = getSet(offset, EXACT_SYMBOL, word);
+
+            count = addNumbers(getSet(offset, SYMBOL, word) & ~exact,
+                    getSet(offset, NUMBER, word) & ~exact, word, SYMBOL, NUMBER, results,
+                    matches, count);
+        }
+
+        for (int word = 0; word < 2; word++) {
+            long found = getSet(offset, SYMBOL, word) | getSet(offset, NUMBER, word);
+
+            count = addNumbers(getSet(offset, NAME, word) & ~found,
+                    getSet(offset, LOCALIZED_NAME, word) & ~found, word, NAME, LOCALIZED_NAME,
+                    results, matches, count);
+        }
+
+        return count;
+    }
+
+    private long getSet(int offset, int set, int word) {
+        return mSets[offset + (set * 2) + word];
+    }
+
+    /*
+     * Adds the elements of either set in atomic number order, with the match of the first set for
+     * those in both.
+     */
+    private static int addNumbers(long first, long second, int word, int firstMatch,
+                                  int secondMatch, int[] results, int[] matches, int count) {
+        long bits = first | second;
+
+        while (bits != 0) {
+            int bit = Long.numberOfTrailingZeros(bits);
+
+            results[count] = (word * 64) + bit;
+            matches[count++] = (first & (1L << bit)) != 0 ? firstMatch : secondMatch;
+
+            bits &= bits - 1;
+        }
+
+        return count;
+    }
+}
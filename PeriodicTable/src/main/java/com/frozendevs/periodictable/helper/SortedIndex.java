@@ -0,0 +1,115 @@
+package com.frozendevs.periodictable.helper;
+
+import java.util.Arrays;
+
+/**
+ * The atomic numbers of the elements with a known value of one numeric property, sorted by that
+ * value. Comparisons with a value are answered by binary search over the sorted values.
+ */
+public class SortedIndex {
+
+    private int[] mNumbers;
+    private double[] mValues;
+    private int[] mRanks;
+
+    SortedIndex(double[] column) {
+        int count = 0;
+        for (double value : column) {
+            if (!Double.isNaN(value)) {
+                count++;
+            }
+        }
+
+        mNumbers = new int[count];
+        mValues = new double[count];
+
+        /*
+         * Insertion sort, there are only about a hundred values and equal values stay in atomic
+         * number order.
+         */
+        int size = 0;
+        for (int number = 0; number < column.length; number++) {
+            double value = column[number];
+
+            if (!Double.isNaN(value)) {
+                int index = size++;
+
+                while (index > 0 && mValues[index - 1] > value) {
+                    mValues[index] = mValues[index - 1];
+                    mNumbers[index] = mNumbers[index - 1];
+                    index--;
+                }
+
+                mValues[index] = value;
+                mNumbers[index] = number;
+            }
+        }
+
+        mRanks = new int[column.length];
+        Arrays.fill(mRanks, -1);
+
+        for (int rank = 0; rank < count; rank++) {
+            mRanks[mNumbers[rank]] = rank;
+        }
+    }
+
+    public int size() {
+        return mNumbers.length;
+    }
+
+    /**
+     * Returns the atomic number of the element at the given position in ascending order.
+     */
+    public int getNumber(int rank) {
+        return mNumbers[rank];
+    }
+
+    public double getValue(int rank) {
+        return mValues[rank];
+    }
+
+    /**
+     * Returns the position of the element in ascending order, or -1 if its value is unknown.
+     */
+    public int getRank(int number) {
+        return number >= 0 && number < mRanks.length ? mRanks[number] : -1;
+    }
+
+    /**
+     * Returns the position of the first value which is not less than the given one.
+     */
+    public int lowerBound(double value) {
+        int low = 0, high = mValues.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (mValues[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Returns the position of the first value which is greater than the given one.
+     */
+    public int upperBound(double value) {
+        int low = 0, high = mValues.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (mValues[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+}
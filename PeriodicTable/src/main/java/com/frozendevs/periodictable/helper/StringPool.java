@@ -0,0 +1,25 @@
+package com.frozendevs.periodictable.helper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out a single instance of every distinct string passed to intern(), so that property values
+ * repeated across elements and isotopes share their storage.
+ */
+class StringPool {
+
+    private Map<String, String> mStrings = new HashMap<String, String>();
+
+    synchronized String intern(String string) {
+        String pooled = mStrings.get(string);
+
+        if (pooled == null) {
+            mStrings.put(string, string);
+
+            pooled = string;
+        }
+
+        return pooled;
+    }
+}
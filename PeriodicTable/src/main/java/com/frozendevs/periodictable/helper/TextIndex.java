@@ -0,0 +1,304 @@
+package com.frozendevs.periodictable.helper;
+
+import com.frozendevs.periodictable.model.ElementProperties;
+import com.frozendevs.periodictable.model.TextProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An inverted index of the tokens of every text property of every element. Each token maps to a
+ * sorted posting list of (element, property) pairs, so a query is a union of the posting lists of
+ * each of its tokens followed by an intersection across tokens.
+ *
+ * All the tokens of a query have to be found in the same property of an element. The last token
+ * of a query is matched as a prefix, the others exactly.
+ */
+public class TextIndex {
+
+    private static final TextProperty[] PROPERTIES = TextProperty.values();
+
+    private String[] mTokens;
+    private int[][] mPostings;
+    private String[][] mValues;
+
+    /*
+     * Bitmaps over the (element, property) pairs reused by every query.
+     */
+    private long[] mMatches;
+    private long[] mTokenMatches;
+
+    /**
+     * A property of an element which matched a query.
+     */
+    public static class Match {
+        private int mNumber;
+        private TextProperty mProperty;
+        private String mValue;
+        private int[] mRanges;
+
+        Match(int number, TextProperty property, String value, int[] ranges) {
+            mNumber = number;
+            mProperty = property;
+            mValue = value;
+            mRanges = ranges;
+        }
+
+        public int getNumber() {
+            return mNumber;
+        }
+
+        public TextProperty getProperty() {
+            return mProperty;
+        }
+
+        public String getValue() {
+            return mValue;
+        }
+
+        /**
+         * Returns the ranges of the value which matched the tokens of the query, as pairs of start
+         * and end offsets.
+         */
+        public int[] getRanges() {
+            return mRanges;
+        }
+    }
+
+    private TextIndex(String[] tokens, int[][] postings, String[][] values) {
+        mTokens = tokens;
+        mPostings = postings;
+        mValues = values;
+
+        int size = ((values.length * PROPERTIES.length) + 63) >>> 6;
+
+        mMatches = new long[size];
+        mTokenMatches = new long[size];
+    }
+
+    static TextIndex build(ElementProperties[] elements) {
+        int maxNumber = 0;
+        for (ElementProperties element : elements) {
+            maxNumber = Math.max(element.getNumber(), maxNumber);
+        }
+
+        String[][] values = new String[maxNumber + 1][];
+
+        /*
+         * The elements and their properties are visited in order, so every posting list is built
+         * sorted and a repeated token only has to be compared with the last posting.
+         */
+        Map<String, List<Integer>> postingLists = new HashMap<>();
+        List<String> tokens = new ArrayList<>();
+
+        for (ElementProperties element : elements) {
+            String[] elementValues = values[element.getNumber()] = new String[PROPERTIES.length];
+
+            for (TextProperty property : PROPERTIES) {
+                String value = elementValues[property.ordinal()] = property.getValue(element);
+
+                int posting = getPosting(element.getNumber(), property.ordinal());
+
+                tokens.clear();
+                tokenize(value, tokens, true);
+
+                for (String token : tokens) {
+                    List<Integer> postingList = postingLists.get(token);
+
+                    if (postingList == null) {
+                        postingLists.put(token, postingList = new ArrayList<>());
+                    }
+
+                    if (postingList.isEmpty() ||
+                            postingList.get(postingList.size() - 1) != posting) {
+                        postingList.add(posting);
+                    }
+                }
+            }
+        }
+
+        String[] sortedTokens = postingLists.keySet().toArray(new String[postingLists.size()]);
+        Arrays.sort(sortedTokens);
+
+        int[][] postings = new int[sortedTokens.length][];
+
+        for (int i = 0; i < sortedTokens.length; i++) {
+            List<Integer> postingList = postingLists.get(sortedTokens[i]);
+
+            postings[i] = new int[postingList.size()];
+
+            for (int j = 0; j < postings[i].length; j++) {
+                postings[i][j] = postingList.get(j);
+            }
+        }
+
+        return new TextIndex(sortedTokens, postings, values);
+    }
+
+    private static int getPosting(int number, int property) {
+        return (number * PROPERTIES.length) + property;
+    }
+
+    /**
+     * Splits the text, folded by TextNormalizer, into runs of letters and digits. Dots and hyphens
+     * between two letters or digits are kept, so that "7.874" and "1333-74-0" stay single tokens.
+     * When indexing, the parts of a hyphenated word such as "silvery-white" are added too.
+     */
+    static void tokenize(String text, List<String> tokens, boolean indexing) {
+        if (text == null) {
+            return;
+        }
+
+        text = TextNormalizer.normalize(text);
+
+        int length = text.length();
+        int start = -1;
+
+        for (int i = 0; i <= length; i++) {
+            char character = i < length ? text.charAt(i) : ' ';
+
+            if (Character.isLetterOrDigit(character) || (start >= 0 &&
+                    (character == '.' || character == '-') && i + 1 < length &&
+                    Character.isLetterOrDigit(text.charAt(i + 1)))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                String token = text.substring(start, i);
+
+                tokens.add(token);
+
+                if (indexing && token.indexOf('-') >= 0) {
+                    for (String part : token.split("-")) {
+                        tokens.add(part);
+                    }
+                }
+
+                start = -1;
+            }
+        }
+    }
+
+    /**
+     * Returns the elements with a property which contains every token of the query, in atomic
+     * number order. Each element is returned once, with the first of its properties which
+     * matched.
+     */
+    public synchronized List<Match> search(String query) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(query, tokens, false);
+
+        List<Match> matches = new ArrayList<>();
+
+        if (tokens.isEmpty()) {
+            return matches;
+        }
+
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+
+            int from = lowerBound(token);
+            int to = i == tokens.size() - 1 ? lowerBound(token + Character.MAX_VALUE) :
+                    (from < mTokens.length && mTokens[from].equals(token) ? from + 1 : from);
+
+            long[] bitmap = i == 0 ? mMatches : mTokenMatches;
+
+            Arrays.fill(bitmap, 0L);
+
+            for (int j = from; j < to; j++) {
+                for (int posting : mPostings[j]) {
+                    bitmap[posting >>> 6] |= 1L << posting;
+                }
+            }
+
+            if (i > 0) {
+                boolean empty = true;
+
+                for (int j = 0; j < mMatches.length; j++) {
+                    if ((mMatches[j] &= mTokenMatches[j]) != 0) {
+                        empty = false;
+                    }
+                }
+
+                if (empty) {
+                    return matches;
+                }
+            }
+        }
+
+        int lastNumber = -1;
+
+        for (int i = 0; i < mMatches.length; i++) {
+            long word = mMatches[i];
+
+            while (word != 0) {
+                int posting = (i << 6) + Long.numberOfTrailingZeros(word);
+                int number = posting / PROPERTIES.length;
+
+                word &= word - 1;
+
+                if (number != lastNumber) {
+                    int property = posting % PROPERTIES.length;
+                    String value = mValues[number][property];
+
+                    matches.add(new Match(number, PROPERTIES[property], value,
+                            getRanges(value, tokens)));
+
+                    lastNumber = number;
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    /*
+     * Finds every token at the start of a word of the value. Folding a value which changes its
+     * length would move the offsets, so nothing is found in it.
+     */
+    private static int[] getRanges(String value, List<String> tokens) {
+        String text = TextNormalizer.normalize(value);
+
+        if (text.length() != value.length()) {
+            return new int[0];
+        }
+
+        int[] ranges = new int[8];
+        int count = 0;
+
+        for (String token : tokens) {
+            for (int start = text.indexOf(token); start >= 0;
+                 start = text.indexOf(token, start + 1)) {
+                if (start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1))) {
+                    if (count == ranges.length) {
+                        ranges = Arrays.copyOf(ranges, count * 2);
+                    }
+
+                    ranges[count++] = start;
+                    ranges[count++] = start + token.length();
+                }
+            }
+        }
+
+        return Arrays.copyOf(ranges, count);
+    }
+
+    private int lowerBound(String token) {
+        int low = 0, high = mTokens.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (mTokens[middle].compareTo(token) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+}
@@ -0,0 +1,46 @@
+package com.frozendevs.periodictable.helper;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Folds text for searching: lower case, with the diacritics removed, so that "Hidrógeno" and
+ * "hidrogeno" are the same key. Every index and every query goes through the same folding.
+ */
+public class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        boolean ascii = true;
+
+        for (int i = 0; i < text.length() && ascii; i++) {
+            ascii = text.charAt(i) < 0x80;
+        }
+
+        if (ascii) {
+            return text.toLowerCase(Locale.ENGLISH);
+        }
+
+        /*
+         * The decomposed form puts every accent in a combining mark of its own, which is dropped.
+         */
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(decomposed.length());
+
+        for (int i = 0; i < decomposed.length(); i++) {
+            char character = decomposed.charAt(i);
+
+            if (Character.getType(character) != Character.NON_SPACING_MARK) {
+                builder.append(character);
+            }
+        }
+
+        return builder.toString().toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -5,6 +5,15 @@ public class ElementListItem {
     private String name, symbol;
     private int number;
 
+    public ElementListItem() {
+    }
+
+    public ElementListItem(String name, String symbol, int number) {
+        this.name = name;
+        this.symbol = symbol;
+        this.number = number;
+    }
+
     public String getName() {
         return name;
     }
@@ -12,7 +12,73 @@ public class ElementProperties extends TableItem implements Serializable {
             thermalExpansion, speedOfSound, youngsModulus, shearModulus, bulkModulus, mohsHardness,
             brinellHardness, electronsPerShell, thermalDiffusivity, electricalResistivity,
             bandGap, curiePoint, tensileStrength, poissonRatio, vickersHardness, casNumber;
-    private Isotope[] isotopes;
+
+    /**
+     * The properties in the order their values are passed to the constructor, named like the keys
+     * of R.raw.database.
+     */
+    public static final String[] PROPERTIES = {
+            "block", "electronConfiguration", "wikipediaLink", "appearance", "phase", "density",
+            "liquidDensityAtMeltingPoint", "liquidDensityAtBoilingPoint", "meltingPoint",
+            "sublimationPoint", "boilingPoint", "triplePoint", "criticalPoint", "heatOfFusion",
+            "heatOfVaporization", "molarHeatCapacity", "oxidationStates", "electronegativity",
+            "molarIonizationEnergies", "atomicRadius", "covalentRadius", "vanDerWaalsRadius",
+            "crystalStructure", "magneticOrdering", "thermalConductivity", "thermalExpansion",
+            "speedOfSound", "youngsModulus", "shearModulus", "bulkModulus", "mohsHardness",
+            "brinellHardness", "electronsPerShell", "thermalDiffusivity", "electricalResistivity",
+            "bandGap", "curiePoint", "tensileStrength", "poissonRatio", "vickersHardness",
+            "casNumber"
+    };
+
+    public ElementProperties() {
+    }
+
+    public ElementProperties(TableItem item, String[] values) {
+        super(item.getName(), item.getSymbol(), item.getNumber(), item.getStandardAtomicWeight(),
+                item.getGroup(), item.getPeriod(), item.getCategory());
+
+        block = values[0];
+        electronConfiguration = values[1];
+        wikipediaLink = values[2];
+        appearance = values[3];
+        phase = values[4];
+        density = values[5];
+        liquidDensityAtMeltingPoint = values[6];
+        liquidDensityAtBoilingPoint = values[7];
+        meltingPoint = values[8];
+        sublimationPoint = values[9];
+        boilingPoint = values[10];
+        triplePoint = values[11];
+        criticalPoint = values[12];
+        heatOfFusion = values[13];
+        heatOfVaporization = values[14];
+        molarHeatCapacity = values[15];
+        oxidationStates = values[16];
+        electronegativity = values[17];
+        molarIonizationEnergies = values[18];
+        atomicRadius = values[19];
+        covalentRadius = values[20];
+        vanDerWaalsRadius = values[21];
+        crystalStructure = values[22];
+        magneticOrdering = values[23];
+        thermalConductivity = values[24];
+        thermalExpansion = values[25];
+        speedOfSound = values[26];
+        youngsModulus = values[27];
+        shearModulus = values[28];
+        bulkModulus = values[29];
+        mohsHardness = values[30];
+        brinellHardness = values[31];
+        electronsPerShell = values[32];
+        thermalDiffusivity = values[33];
+        electricalResistivity = values[34];
+        bandGap = values[35];
+        curiePoint = values[36];
+        tensileStrength = values[37];
+        poissonRatio = values[38];
+        vickersHardness = values[39];
+        casNumber = values[40];
+    }
 
     public String getBlock() {
         return block;
@@ -86,10 +152,6 @@ public class ElementProperties extends TableItem implements Serializable {
         return electronegativity;
     }
 
-    public Isotope[] getIsotopes() {
-        return isotopes;
-    }
-
     public String getMolarIonizationEnergies() {
         return molarIonizationEnergies;
     }
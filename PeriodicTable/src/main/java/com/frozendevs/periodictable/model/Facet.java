@@ -0,0 +1,86 @@
+package com.frozendevs.periodictable.model;
+
+import com.frozendevs.periodictable.R;
+
+/**
+ * The properties of an element the element list and the table can be filtered by. Every value of
+ * a facet is identified by an index between 0 and getValuesCount() - 1.
+ */
+public enum Facet {
+    CATEGORY(11),
+    BLOCK(4),
+    PERIOD(7),
+    GROUP(18),
+    PHASE(3);
+
+    public static final String BLOCKS = "spdf";
+    public static final String[] PHASES = {"Solid", "Liquid", "Gas"};
+
+    /**
+     * The names of the categories and of the phases, indexed by their values.
+     */
+    public static final int[] CATEGORY_NAMES = {
+            R.string.category_diatomic_nonmetals,
+            R.string.category_noble_gases,
+            R.string.category_alkali_metals,
+            R.string.category_alkaline_earth_metals,
+            R.string.category_metalloids,
+            R.string.category_polyatomic_nonmetals,
+            R.string.category_other_metals,
+            R.string.category_transition_metals,
+            R.string.category_lanthanides,
+            R.string.category_actinides,
+            R.string.category_unknown
+    };
+    public static final int[] PHASE_NAMES = {
+            R.string.phase_solid,
+            R.string.phase_liquid,
+            R.string.phase_gas
+    };
+
+    private int mValuesCount;
+
+    Facet(int valuesCount) {
+        mValuesCount = valuesCount;
+    }
+
+    public int getValuesCount() {
+        return mValuesCount;
+    }
+
+    /**
+     * Returns the index of the value of this facet for the given element, or -1 if it is unknown.
+     */
+    public int getValue(ElementProperties properties) {
+        int value = -1;
+
+        switch (this) {
+            case CATEGORY:
+                value = properties.getCategory();
+                break;
+
+            case BLOCK:
+                value = properties.getBlock() != null && properties.getBlock().length() == 1 ?
+                        BLOCKS.indexOf(properties.getBlock().charAt(0)) : -1;
+                break;
+
+            case PERIOD:
+                value = properties.getPeriod() - 1;
+                break;
+
+            case GROUP:
+                value = properties.getGroup() - 1;
+                break;
+
+            case PHASE:
+                for (int i = 0; i < PHASES.length; i++) {
+                    if (PHASES[i].equals(properties.getPhase())) {
+                        value = i;
+                    }
+                }
+                break;
+        }
+
+        return value >= 0 && value < mValuesCount ? value : -1;
+    }
+}
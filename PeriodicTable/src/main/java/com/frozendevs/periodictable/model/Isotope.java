@@ -6,6 +6,25 @@ public class Isotope implements Serializable {
 
     private String symbol, halfLife, spin, abundance, decayModes;
 
+    /**
+     * The properties in the order their values are passed to the constructor, named like the keys
+     * of the isotopes in R.raw.database.
+     */
+    public static final String[] PROPERTIES = {
+            "symbol", "halfLife", "spin", "abundance", "decayModes"
+    };
+
+    public Isotope() {
+    }
+
+    public Isotope(String[] values) {
+        symbol = values[0];
+        halfLife = values[1];
+        spin = values[2];
+        abundance = values[3];
+        decayModes = values[4];
+    }
+
     public String getSymbol() {
         return symbol;
     }
@@ -0,0 +1,122 @@
+package com.frozendevs.periodictable.model;
+
+/**
+ * The properties of an element which have a numeric value, in the unit of the first value of the
+ * corresponding display string.
+ */
+public enum NumericProperty {
+    /** u, the mass number of the most stable isotope for elements without a standard weight */
+    WEIGHT,
+    /** g·cm⁻³ */
+    DENSITY,
+    /** K */
+    MELTING_POINT,
+    /** K */
+    BOILING_POINT,
+    /** Pauling scale */
+    ELECTRONEGATIVITY,
+    /** pm */
+    ATOMIC_RADIUS,
+    /** pm */
+    COVALENT_RADIUS,
+    /** pm */
+    VAN_DER_WAALS_RADIUS,
+    /** kJ·mol⁻¹, first ionization energy */
+    IONIZATION_ENERGY,
+    /** kJ·mol⁻¹ */
+    HEAT_OF_FUSION,
+    /** kJ·mol⁻¹ */
+    HEAT_OF_VAPORIZATION,
+    /** J·mol⁻¹·K⁻¹ */
+    MOLAR_HEAT_CAPACITY,
+    /** W·m⁻¹·K⁻¹ */
+    THERMAL_CONDUCTIVITY,
+    /** µm·m⁻¹·K⁻¹ */
+    THERMAL_EXPANSION,
+    /** m·s⁻¹ */
+    SPEED_OF_SOUND,
+    /** GPa */
+    YOUNGS_MODULUS,
+    /** GPa */
+    SHEAR_MODULUS,
+    /** GPa */
+    BULK_MODULUS,
+    POISSON_RATIO,
+    MOHS_HARDNESS,
+    /** MPa */
+    VICKERS_HARDNESS,
+    /** MPa */
+    BRINELL_HARDNESS;
+
+    public String getValue(ElementProperties properties) {
+        switch (this) {
+            case WEIGHT:
+                return properties.getStandardAtomicWeight();
+
+            case DENSITY:
+                return properties.getDensity();
+
+            case MELTING_POINT:
+                return properties.getMeltingPoint();
+
+            case BOILING_POINT:
+                return properties.getBoilingPoint();
+
+            case ELECTRONEGATIVITY:
+                return properties.getElectronegativity();
+
+            case ATOMIC_RADIUS:
+                return properties.getAtomicRadius();
+
+            case COVALENT_RADIUS:
+                return properties.getCovalentRadius();
+
+            case VAN_DER_WAALS_RADIUS:
+                return properties.getVanDerWaalsRadius();
+
+            case IONIZATION_ENERGY:
+                return properties.getMolarIonizationEnergies();
+
+            case HEAT_OF_FUSION:
+                return properties.getHeatOfFusion();
+
+            case HEAT_OF_VAPORIZATION:
+                return properties.getHeatOfVaporization();
+
+            case MOLAR_HEAT_CAPACITY:
+                return properties.getMolarHeatCapacity();
+
+            case THERMAL_CONDUCTIVITY:
+                return properties.getThermalConductivity();
+
+            case THERMAL_EXPANSION:
+                return properties.getThermalExpansion();
+
+            case SPEED_OF_SOUND:
+                return properties.getSpeedOfSound();
+
+            case YOUNGS_MODULUS:
+                return properties.getYoungsModulus();
+
+            case SHEAR_MODULUS:
+                return properties.getShearModulus();
+
+            case BULK_MODULUS:
+                return properties.getBulkModulus();
+
+            case POISSON_RATIO:
+                return properties.getPoissonRatio();
+
+            case MOHS_HARDNESS:
+                return properties.getMohsHardness();
+
+            case VICKERS_HARDNESS:
+                return properties.getVickersHardness();
+
+            case BRINELL_HARDNESS:
+                return properties.getBrinellHardness();
+        }
+
+        return null;
+    }
+}
@@ -5,6 +5,19 @@ public class TableItem extends ElementListItem {
     private String weight;
     private int group, period, category;
 
+    public TableItem() {
+    }
+
+    public TableItem(String name, String symbol, int number, String weight, int group, int period,
+                     int category) {
+        super(name, symbol, number);
+
+        this.weight = weight;
+        this.group = group;
+        this.period = period;
+        this.category = category;
+    }
+
     public int getGroup() {
         return group;
     }
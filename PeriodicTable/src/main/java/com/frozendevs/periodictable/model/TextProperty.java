@@ -0,0 +1,200 @@
+package com.frozendevs.periodictable.model;
+
+import com.frozendevs.periodictable.R;
+
+/**
+ * The properties of an element which are shown as text, all of them are searchable.
+ */
+public enum TextProperty {
+    NAME(R.string.property_name),
+    SYMBOL(R.string.property_symbol),
+    WEIGHT(R.string.property_weight),
+    BLOCK(R.string.property_block),
+    ELECTRON_CONFIGURATION(R.string.property_electron_configuration),
+    ELECTRONS_PER_SHELL(R.string.property_electrons_per_shell),
+    APPEARANCE(R.string.property_appearance),
+    PHASE(R.string.property_phase),
+    DENSITY(R.string.property_density),
+    LIQUID_DENSITY_AT_MELTING_POINT(R.string.property_liquid_density_at_mp),
+    LIQUID_DENSITY_AT_BOILING_POINT(R.string.property_liquid_density_at_bp),
+    MELTING_POINT(R.string.property_melting_point),
+    SUBLIMATION_POINT(R.string.property_sublimation_point),
+    BOILING_POINT(R.string.property_boiling_point),
+    TRIPLE_POINT(R.string.property_triple_point),
+    CRITICAL_POINT(R.string.property_critical_point),
+    HEAT_OF_FUSION(R.string.property_heat_of_fusion),
+    HEAT_OF_VAPORIZATION(R.string.property_heat_of_vaporization),
+    MOLAR_HEAT_CAPACITY(R.string.property_molar_heat_capacity),
+    OXIDATION_STATES(R.string.property_oxidation_states),
+    ELECTRONEGATIVITY(R.string.property_electronegativity),
+    MOLAR_IONIZATION_ENERGIES(R.string.property_molar_ionization_energies),
+    ATOMIC_RADIUS(R.string.property_atomic_radius),
+    COVALENT_RADIUS(R.string.property_covalent_radius),
+    VAN_DER_WAALS_RADIUS(R.string.property_van_der_waals_radius),
+    CRYSTAL_STRUCTURE(R.string.property_crystal_structure),
+    MAGNETIC_ORDERING(R.string.property_magnetic_ordering),
+    THERMAL_CONDUCTIVITY(R.string.property_thermal_conductivity),
+    THERMAL_EXPANSION(R.string.property_thermal_expansion),
+    THERMAL_DIFFUSIVITY(R.string.property_thermal_diffusivity),
+    ELECTRICAL_RESISTIVITY(R.string.property_electrical_resistivity),
+    BAND_GAP(R.string.property_band_gap),
+    CURIE_POINT(R.string.property_curie_point),
+    TENSILE_STRENGTH(R.string.property_tensile_strength),
+    SPEED_OF_SOUND(R.string.property_speed_of_sound),
+    POISSON_RATIO(R.string.property_poisson_ratio),
+    YOUNGS_MODULUS(R.string.property_youngs_modulus),
+    SHEAR_MODULUS(R.string.property_shear_modulus),
+    BULK_MODULUS(R.string.property_bulk_modulus),
+    MOHS_HARDNESS(R.string.property_mohs_hardness),
+    VICKERS_HARDNESS(R.string.property_vickers_hardness),
+    BRINELL_HARDNESS(R.string.property_brinell_hardness),
+    CAS_NUMBER(R.string.property_cas_number);
+
+    private int mNameId;
+
+    TextProperty(int nameId) {
+        mNameId = nameId;
+    }
+
+    /**
+     * Returns the string resource of the name of the property.
+     */
+    public int getNameId() {
+        return mNameId;
+    }
+
+    public String getValue(ElementProperties properties) {
+        switch (this) {
+            case NAME:
+                return properties.getName();
+
+            case SYMBOL:
+                return properties.getSymbol();
+
+            case WEIGHT:
+                return properties.getStandardAtomicWeight();
+
+            case BLOCK:
+                return properties.getBlock();
+
+            case ELECTRON_CONFIGURATION:
+                return properties.getElectronConfiguration();
+
+            case ELECTRONS_PER_SHELL:
+                return properties.getElectronsPerShell();
+
+            case APPEARANCE:
+                return properties.getAppearance();
+
+            case PHASE:
+                return properties.getPhase();
+
+            case DENSITY:
+                return properties.getDensity();
+
+            case LIQUID_DENSITY_AT_MELTING_POINT:
+                return properties.getLiquidDensityAtMeltingPoint();
+
+            case LIQUID_DENSITY_AT_BOILING_POINT:
+                return properties.getLiquidDensityAtBoilingPoint();
+
+            case MELTING_POINT:
+                return properties.getMeltingPoint();
+
+            case SUBLIMATION_POINT:
+                return properties.getSublimationPoint();
+
+            case BOILING_POINT:
+                return properties.getBoilingPoint();
+
+            case TRIPLE_POINT:
+                return properties.getTriplePoint();
+
+            case CRITICAL_POINT:
+                return properties.getCriticalPoint();
+
+            case HEAT_OF_FUSION:
+                return properties.getHeatOfFusion();
+
+            case HEAT_OF_VAPORIZATION:
+                return properties.getHeatOfVaporization();
+
+            case MOLAR_HEAT_CAPACITY:
+                return properties.getMolarHeatCapacity();
+
+            case OXIDATION_STATES:
+                return properties.getOxidationStates();
+
+            case ELECTRONEGATIVITY:
+                return properties.getElectronegativity();
+
+            case MOLAR_IONIZATION_ENERGIES:
+                return properties.getMolarIonizationEnergies();
+
+            case ATOMIC_RADIUS:
+                return properties.getAtomicRadius();
+
+            case COVALENT_RADIUS:
+                return properties.getCovalentRadius();
+
+            case VAN_DER_WAALS_RADIUS:
+                return properties.getVanDerWaalsRadius();
+
+            case CRYSTAL_STRUCTURE:
+                return properties.getCrystalStructure();
+
+            case MAGNETIC_ORDERING:
+                return properties.getMagneticOrdering();
+
+            case THERMAL_CONDUCTIVITY:
+                return properties.getThermalConductivity();
+
+            case THERMAL_EXPANSION:
+                return properties.getThermalExpansion();
+
+            case THERMAL_DIFFUSIVITY:
+                return properties.getThermalDiffusivity();
+
+            case ELECTRICAL_RESISTIVITY:
+                return properties.getElectricalResistivity();
+
+            case BAND_GAP:
+                return properties.getBandGap();
+
+            case CURIE_POINT:
+                return properties.getCuriePoint();
+
+            case TENSILE_STRENGTH:
+                return properties.getTensileStrength();
+
+            case SPEED_OF_SOUND:
+                return properties.getSpeedOfSound();
+
+            case POISSON_RATIO:
+                return properties.getPoissonRatio();
+
+            case YOUNGS_MODULUS:
+                return properties.getYoungsModulus();
+
+            case SHEAR_MODULUS:
+                return properties.getShearModulus();
+
+            case BULK_MODULUS:
+                return properties.getBulkModulus();
+
+            case MOHS_HARDNESS:
+                return properties.getMohsHardness();
+
+            case VICKERS_HARDNESS:
+                return properties.getVickersHardness();
+
+            case BRINELL_HARDNESS:
+                return properties.getBrinellHardness();
+
+            case CAS_NUMBER:
+                return properties.getCasNumber();
+        }
+
+        return null;
+    }
+}
@@ -1,7 +1,14 @@
 package com.frozendevs.periodictable.model.adapter;
 
-import android.content.Context;
 import android.content.Intent;
+import android.graphics.Typeface;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.text.Spannable;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.StyleSpan;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -9,22 +16,123 @@ import android.widget.TextView;
 
 import com.frozendevs.periodictable.R;
 import com.frozendevs.periodictable.activity.PropertiesActivity;
+import com.frozendevs.periodictable.helper.ElementNames;
+import com.frozendevs.periodictable.helper.ElementSet;
+import com.frozendevs.periodictable.helper.SortedIndex;
+import com.frozendevs.periodictable.helper.TextIndex;
 import com.frozendevs.periodictable.model.ElementListItem;
 import com.frozendevs.periodictable.view.RecyclerView;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 public class ElementsAdapter extends RecyclerView.Adapter<ElementsAdapter.ViewHolder> {
 
+    /*
+     * How long typing has to pause before the filter is searched, in milliseconds.
+     */
+    private static final int SEARCH_DELAY = 80;
+
+    /**
+     * Searches the filters one at a time, only the latest of them is published.
+     */
+    private static final ExecutorService mSearchExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    return new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+
+                            runnable.run();
+                        }
+                    }, "Search");
+                }
+            });
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
     private ElementListItem[] mItems;
+    private ElementNames mElementNames;
+    private ElementsIndex mIndex;
     private List<ElementListItem> mFilteredItems = new ArrayList<>();
+    private String mFilter;
+    private SortedIndex mSortedIndex;
+    private ElementSet mMatches;
+    private TextIndex mTextIndex;
+    private SearchResults mResults = new SearchResults();
+    private ElementsSearch mSearch;
+
+    private Runnable mStartSearch = new Runnable() {
+        @Override
+        public void run() {
+            startSearch();
+        }
+    };
+
+    /*
+     * Hands a spannable to the text view as it is instead of copying it.
+     */
+    private static final Spannable.Factory SPANNABLE_FACTORY = new Spannable.Factory() {
+        @Override
+        public Spannable newSpannable(CharSequence source) {
+            return source instanceof Spannable ? (Spannable) source : super.newSpannable(source);
+        }
+    };
+
+    /*
+     * The text of one view with the ranges which matched the search in bold. The builder and the
+     * spans are reused on every bind, so typing over a long list does not churn through them. The
+     * view is set up by setUp() to keep the builder itself rather than a copy of it.
+     */
+    private static class HighlightedText {
+        private SpannableStringBuilder mText = new SpannableStringBuilder();
+        private List<StyleSpan> mSpans = new ArrayList<>();
+
+        static void setUp(TextView view) {
+            view.setSpannableFactory(SPANNABLE_FACTORY);
+        }
+
+        /*
+         * The ranges are offset by the given amount and clipped to the text.
+         */
+        void setText(TextView view, CharSequence text, int[] ranges, int offset) {
+            /*
+             * Clearing the spans also detaches the watchers of the view from the builder, so it
+             * is not laid out again for every edit before setText().
+             */
+            mText.clearSpans();
+            mText.replace(0, mText.length(), text);
+
+            int spans = 0;
+
+            for (int i = 1; ranges != null && i < ranges.length; i += 2) {
+                int start = Math.min(ranges[i - 1] + offset, text.length());
+                int end = Math.min(ranges[i] + offset, text.length());
+
+                if (start < end) {
+                    if (spans == mSpans.size()) {
+                        mSpans.add(new StyleSpan(Typeface.BOLD));
+                    }
+
+                    mText.setSpan(mSpans.get(spans++), start, end,
+                            Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+                }
+            }
+
+            view.setText(mText, TextView.BufferType.SPANNABLE);
+        }
+    }
 
     public class ViewHolder extends RecyclerView.ViewHolder implements
             View.OnClickListener {
-        TextView mSymbolView, mNumberView, mNameView;
+        TextView mSymbolView, mNumberView, mNameView, mMatchView;
+        HighlightedText mSymbolText = new HighlightedText(), mNumberText = new HighlightedText(),
+                mNameText = new HighlightedText(), mMatchText = new HighlightedText();
         int mNumber;
 
         public ViewHolder(View itemView) {
@@ -33,20 +141,49 @@ public class ElementsAdapter extends RecyclerView.Adapter<ElementsAdapter.ViewHo
             mSymbolView = (TextView) itemView.findViewById(R.id.element_symbol);
             mNumberView = (TextView) itemView.findViewById(R.id.element_number);
             mNameView = (TextView) itemView.findViewById(R.id.element_name);
+            mMatchView = (TextView) itemView.findViewById(R.id.element_match);
+
+            HighlightedText.setUp(mSymbolView);
+            HighlightedText.setUp(mNumberView);
+            HighlightedText.setUp(mNameView);
+            HighlightedText.setUp(mMatchView);
 
             itemView.setOnClickListener(this);
         }
 
-        public void setName(String name) {
-            mNameView.setText(name);
+        /*
+         * The ranges are null if the field did not match the search.
+         */
+        public void setName(String name, int[] ranges) {
+            mNameText.setText(mNameView, name, ranges, 0);
         }
 
-        public void setNumber(int number) {
-            mNumberView.setText(Integer.toString(mNumber = number));
+        public void setNumber(int number, int[] ranges) {
+            mNumberText.setText(mNumberView, Integer.toString(mNumber = number), ranges, 0);
         }
 
-        public void setSymbol(String symbol) {
-            mSymbolView.setText(symbol);
+        public void setSymbol(String symbol, int[] ranges) {
+            mSymbolText.setText(mSymbolView, symbol, ranges, 0);
+        }
+
+        /**
+         * Shows which property of the element matched the search, hidden if the match is null.
+         */
+        public void setMatch(TextIndex.Match match) {
+            if (match != null) {
+                String text = itemView.getContext().getString(R.string.search_match,
+                        itemView.getContext().getString(match.getProperty().getNameId()),
+                        match.getValue());
+
+                /*
+                 * The value ends the text, the ranges are relative to it.
+                 */
+                mMatchText.setText(mMatchView, text, match.getRanges(),
+                        text.length() - match.getValue().length());
+                mMatchView.setVisibility(View.VISIBLE);
+            } else {
+                mMatchView.setVisibility(View.GONE);
+            }
         }
 
         @Override
@@ -72,9 +209,12 @@ public class ElementsAdapter extends RecyclerView.Adapter<ElementsAdapter.ViewHo
     public void onBindViewHolder(ViewHolder holder, int position) {
         ElementListItem item = mFilteredItems.get(position);
 
-        holder.setName(item.getName());
-        holder.setNumber(item.getNumber());
-        holder.setSymbol(item.getSymbol());
+        int number = item.getNumber();
+
+        holder.setName(item.getName(), mResults.getRanges(number, SearchResults.NAME));
+        holder.setNumber(number, mResults.getRanges(number, SearchResults.NUMBER));
+        holder.setSymbol(item.getSymbol(), mResults.getRanges(number, SearchResults.SYMBOL));
+        holder.setMatch(mResults.getPropertyMatch(number));
     }
 
     @Override
@@ -84,49 +224,225 @@ public class ElementsAdapter extends RecyclerView.Adapter<ElementsAdapter.ViewHo
 
     @Override
     public long getItemId(int i) {
-        return mFilteredItems.get(i).hashCode();
+        return mFilteredItems.get(i).getNumber();
+    }
+
+    /**
+     * Searches the filter on the search thread once typing pauses, the list keeps showing the
+     * previous results until then.
+     */
+    public void filter(String filter) {
+        mFilter = filter;
+
+        update(true);
+    }
+
+    public void clearFilter() {
+        mFilter = null;
+
+        update();
     }
 
-    public void filter(Context context, String filter) {
+    public void setItems(ElementListItem[] items) {
+        mItems = items.clone();
+        mIndex = new ElementsIndex(mItems, mElementNames);
+
+        update();
+    }
+
+    /**
+     * Extends the search to the names of the elements in other languages.
+     */
+    public void setElementNames(ElementNames elementNames) {
+        mElementNames = elementNames;
+
         if (mItems != null) {
-            List<ElementListItem> filteredItems = new ArrayList<>();
+            mIndex = new ElementsIndex(mItems, elementNames);
 
-            Locale locale = context.getResources().getConfiguration().locale;
+            update();
+        }
+    }
+
+    /**
+     * Extends the search to every property of the elements. Until it is set only the name, the
+     * symbol and the atomic number are searched.
+     */
+    public void setTextIndex(TextIndex textIndex) {
+        mTextIndex = textIndex;
 
-            int nextPos = 0;
-            for (ElementListItem element : mItems) {
-                if (element.getSymbol().toLowerCase(locale).equalsIgnoreCase(filter)) {
-                    filteredItems.add(0, element);
+        update();
+    }
 
-                    nextPos += 1;
-                } else if (element.getSymbol().toLowerCase(locale).startsWith(filter.toLowerCase(
-                        locale)) || String.valueOf(element.getNumber()).startsWith(filter)) {
-                    filteredItems.add(nextPos, element);
+    /**
+     * Orders the items by the given index, or by atomic number if it is null.
+     */
+    public void setSortedIndex(SortedIndex sortedIndex) {
+        mSortedIndex = sortedIndex;
 
-                    nextPos += 1;
-                } else if (element.getName().toLowerCase(locale).startsWith(
-                        filter.toLowerCase(locale))) {
-                    filteredItems.add(element);
-                }
+        update();
+    }
+
+    /**
+     * Only shows the elements in the given set, or all of them if it is null. The set is not
+     * copied, call this again after modifying it.
+     */
+    public void setMatches(ElementSet matches) {
+        mMatches = matches;
+
+        update();
+    }
+
+    private void update() {
+        update(false);
+    }
+
+    /*
+     * Cancels the pending update and starts a new one. Without a filter the list is only
+     * filtered by the facets and sorted, which is done right away.
+     */
+    private void update(boolean coalesce) {
+        if (mIndex != null) {
+            mHandler.removeCallbacks(mStartSearch);
+
+            if (mSearch != null) {
+                mSearch.cancel();
             }
 
-            mFilteredItems = new ArrayList<>(filteredItems);
+            mSearch = new ElementsSearch(mIndex, mFilter, mTextIndex, mMatches, mSortedIndex);
+
+            if (!mSearch.hasFilter()) {
+                mSearch.run();
 
-            notifyDataSetChanged();
+                publish(mSearch);
+            } else if (coalesce) {
+                mHandler.postDelayed(mStartSearch, SEARCH_DELAY);
+            } else {
+                startSearch();
+            }
         }
     }
 
-    public void clearFilter() {
-        mFilteredItems = new ArrayList<>(Arrays.asList(mItems));
+    private void startSearch() {
+        final ElementsSearch search = mSearch;
+
+        mSearchExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!search.isCancelled() && search.run()) {
+                    mHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            publish(search);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    /*
+     * Replaces the list and its search results together, unless a newer update was started in
+     * the meantime.
+     */
+    private void publish(ElementsSearch search) {
+        if (search == mSearch && !search.isCancelled()) {
+            mSearch = null;
+
+            List<ElementListItem> previousItems = mFilteredItems;
+            SearchResults previousResults = mResults;
+
+            mFilteredItems = search.getItems();
+            mResults = search.getResults();
 
-        notifyDataSetChanged();
+            dispatchChanges(previousItems, previousResults);
+        }
     }
 
-    public void setItems(ElementListItem[] items) {
-        mItems = items.clone();
+    /*
+     * Notifies the rows which were removed, moved, inserted or whose match changed between the
+     * previous and the current list, keyed by atomic number, instead of rebinding every row.
+     */
+    private void dispatchChanges(List<ElementListItem> previousItems,
+                                 SearchResults previousResults) {
+        ElementSet previousNumbers = new ElementSet();
+        ElementSet numbers = new ElementSet();
+
+        for (ElementListItem item : previousItems) {
+            previousNumbers.add(item.getNumber());
+        }
+
+        for (ElementListItem item : mFilteredItems) {
+            numbers.add(item.getNumber());
+        }
 
-        mFilteredItems = new ArrayList<>(Arrays.asList(mItems));
+        /*
+         * Removed rows first, from the end so that the positions before them stay valid.
+         */
+        for (int position = previousItems.size() - 1; position >= 0; position--) {
+            if (!numbers.contains(previousItems.get(position).getNumber())) {
+                int end = position;
+
+                while (position > 0 &&
+                        !numbers.contains(previousItems.get(position - 1).getNumber())) {
+                    position--;
+                }
+
+                notifyItemRangeRemoved(position, end - position + 1);
+            }
+        }
 
-        notifyDataSetChanged();
+        /*
+         * The atomic numbers of the rows as the recycler view sees them after each notification.
+         */
+        int[] current = new int[Math.max(previousItems.size(), mFilteredItems.size())];
+        int size = 0;
+
+        for (ElementListItem item : previousItems) {
+            if (numbers.contains(item.getNumber())) {
+                current[size++] = item.getNumber();
+            }
+        }
+
+        for (int position = 0; position < mFilteredItems.size(); position++) {
+            int number = mFilteredItems.get(position).getNumber();
+
+            if (!previousNumbers.contains(number)) {
+                int count = 1;
+
+                while (position + count < mFilteredItems.size() && !previousNumbers.contains(
+                        mFilteredItems.get(position + count).getNumber())) {
+                    count++;
+                }
+
+                System.arraycopy(current, position, current, position + count, size - position);
+
+                for (int i = 0; i < count; i++) {
+                    current[position + i] = mFilteredItems.get(position + i).getNumber();
+                }
+
+                size += count;
+
+                notifyItemRangeInserted(position, count);
+
+                position += count - 1;
+            } else {
+                if (current[position] != number) {
+                    int from = position + 1;
+
+                    while (current[from] != number) {
+                        from++;
+                    }
+
+                    System.arraycopy(current, position, current, position + 1, from - position);
+                    current[position] = number;
+
+                    notifyItemMoved(from, position);
+                }
+
+                if (!SearchResults.isSameMatch(previousResults, mResults, number)) {
+                    notifyItemChanged(position);
+                }
+            }
+        }
     }
 }
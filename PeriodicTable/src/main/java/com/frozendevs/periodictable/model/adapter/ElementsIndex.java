@@ -0,0 +1,130 @@
+package com.frozendevs.periodictable.model.adapter;
+
+import com.frozendevs.periodictable.helper.ElementNames;
+import com.frozendevs.periodictable.helper.ElementSet;
+import com.frozendevs.periodictable.helper.FuzzyIndex;
+import com.frozendevs.periodictable.helper.PrefixIndex;
+import com.frozendevs.periodictable.helper.TextNormalizer;
+import com.frozendevs.periodictable.model.ElementListItem;
+
+/**
+ * The items of the element list in atomic number order, with the name indexes built from them,
+ * their symbols and names folded by TextNormalizer and the buffers their searches write into.
+ * Only searched on one thread at a time.
+ */
+class ElementsIndex {
+
+    private ElementListItem[] mItems;
+    private String[] mSymbolKeys;
+    private String[] mNameKeys;
+    private String[] mNumberKeys;
+    private PrefixIndex mPrefixIndex;
+    private int[] mPrefixMatches;
+    private int[] mPrefixMatchKinds;
+    private FuzzyIndex mFuzzyIndex;
+    private int[] mFuzzyMatches;
+    private int[] mFuzzyPrefixes;
+    private long[] mSortKeys;
+
+    /**
+     * The names in the other languages may be null.
+     */
+    ElementsIndex(ElementListItem[] items, ElementNames names) {
+        mItems = items;
+
+        mSymbolKeys = new String[ElementSet.CAPACITY];
+        mNameKeys = new String[ElementSet.CAPACITY];
+        mNumberKeys = new String[ElementSet.CAPACITY];
+
+        for (ElementListItem item : items) {
+            mSymbolKeys[item.getNumber()] = TextNormalizer.normalize(item.getSymbol());
+            mNameKeys[item.getNumber()] = TextNormalizer.normalize(item.getName());
+            mNumberKeys[item.getNumber()] = Integer.toString(item.getNumber());
+        }
+
+        mPrefixIndex = new PrefixIndex(items, names);
+        mPrefixMatches = new int[items.length];
+        mPrefixMatchKinds = new int[items.length];
+        mFuzzyIndex = new FuzzyIndex(items, names);
+        mFuzzyMatches = new int[items.length];
+        mFuzzyPrefixes = new int[items.length];
+        mSortKeys = new long[items.length];
+    }
+
+    ElementListItem[] getItems() {
+        return mItems;
+    }
+
+    ElementListItem getItem(int number) {
+        int low = 0, high = mItems.length - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+
+            if (mItems[middle].getNumber() < number) {
+                low = middle + 1;
+            } else if (mItems[middle].getNumber() > number) {
+                high = middle - 1;
+            } else {
+                return mItems[middle];
+            }
+        }
+
+        return null;
+    }
+
+    String getSymbolKey(int number) {
+        return mSymbolKeys[number];
+    }
+
+    /**
+     * Returns the English name of the element folded by TextNormalizer.
+     */
+    String getNameKey(int number) {
+        return mNameKeys[number];
+    }
+
+    String getNumberKey(int number) {
+        return mNumberKeys[number];
+    }
+
+    /**
+     * Searches the prefix index with a filter folded by TextNormalizer, the atomic numbers found
+     * are in getPrefixMatches() and what matched each of them in getPrefixMatchKinds().
+     */
+    int searchPrefixes(String filter) {
+        return mPrefixIndex.search(filter, mPrefixMatches, mPrefixMatchKinds);
+    }
+
+    int[] getPrefixMatches() {
+        return mPrefixMatches;
+    }
+
+    int[] getPrefixMatchKinds() {
+        return mPrefixMatchKinds;
+    }
+
+    /**
+     * Searches the fuzzy index with a filter folded by TextNormalizer, the atomic numbers found
+     * are in getFuzzyMatches() and the length of the English name they share with the filter in
+     * getFuzzyPrefixes().
+     */
+    int searchFuzzy(String filter) {
+        return mFuzzyIndex.search(filter, mFuzzyMatches, mFuzzyPrefixes);
+    }
+
+    int[] getFuzzyMatches() {
+        return mFuzzyMatches;
+    }
+
+    int[] getFuzzyPrefixes() {
+        return mFuzzyPrefixes;
+    }
+
+    /**
+     * A buffer as long as the items, for sorting the results of a search.
+     */
+    long[] getSortKeys() {
+        return mSortKeys;
+    }
+}
@@ -0,0 +1,259 @@
+package com.frozendevs.periodictable.model.adapter;
+
+import com.frozendevs.periodictable.helper.ElementSet;
+import com.frozendevs.periodictable.helper.PrefixIndex;
+import com.frozendevs.periodictable.helper.SortedIndex;
+import com.frozendevs.periodictable.helper.TextIndex;
+import com.frozendevs.periodictable.helper.TextNormalizer;
+import com.frozendevs.periodictable.model.ElementListItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * One update of the element list. Its inputs are captured on the main thread, so it can run on
+ * the search thread while they keep changing, and it stops early once it has been cancelled by
+ * a newer update.
+ */
+class ElementsSearch {
+
+    /*
+     * Shorter filters would match the units of nearly every property of every element.
+     */
+    private static final int MIN_PROPERTY_FILTER_LENGTH = 3;
+
+    private ElementsIndex mIndex;
+    private String mFilter;
+    private TextIndex mTextIndex;
+    private ElementSet mMatches;
+    private SortedIndex mSortedIndex;
+    private volatile boolean mCancelled;
+
+    private List<ElementListItem> mItems;
+    private SearchResults mResults = new SearchResults();
+
+    /**
+     * The filter may be null to list every item, the matches null to not filter by facets. The
+     * matches are copied.
+     */
+    ElementsSearch(ElementsIndex index, String filter, TextIndex textIndex, ElementSet matches,
+                   SortedIndex sortedIndex) {
+        mIndex = index;
+        mFilter = filter;
+        mTextIndex = textIndex;
+        mSortedIndex = sortedIndex;
+
+        if (matches != null) {
+            mMatches = new ElementSet();
+            mMatches.set(matches);
+        }
+    }
+
+    boolean hasFilter() {
+        return mFilter != null;
+    }
+
+    void cancel() {
+        mCancelled = true;
+    }
+
+    boolean isCancelled() {
+        return mCancelled;
+    }
+
+    /**
+     * Runs the update, returns false if it was cancelled before it finished.
+     */
+    boolean run() {
+        List<ElementListItem> items = mFilter != null ? search(mFilter) :
+                new ArrayList<>(Arrays.asList(mIndex.getItems()));
+
+        if (mCancelled) {
+            return false;
+        }
+
+        if (mMatches != null) {
+            for (Iterator<ElementListItem> iterator = items.iterator(); iterator.hasNext(); ) {
+                if (!mMatches.contains(iterator.next().getNumber())) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        mItems = sort(items);
+
+        return !mCancelled;
+    }
+
+    /*
+     * The tier plus the part of the text which matched.
+     */
+    private static float getScore(int tier, int length, int textLength) {
+        return tier + (textLength > 0 ? Math.min((float) length / textLength, 1f) : 0f);
+    }
+
+    List<ElementListItem> getItems() {
+        return mItems;
+    }
+
+    /**
+     * Returns why each element matched the filter. Empty without one.
+     */
+    SearchResults getResults() {
+        return mResults;
+    }
+
+    private List<ElementListItem> search(String filter) {
+        String key = TextNormalizer.normalize(filter);
+
+        /*
+         * The exact symbol first, then the symbol and number prefixes, then the name prefixes.
+         */
+        int count = mIndex.searchPrefixes(key);
+        int[] numbers = mIndex.getPrefixMatches();
+        int[] kinds = mIndex.getPrefixMatchKinds();
+
+        List<ElementListItem> filteredItems = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            int number = numbers[i];
+
+            filteredItems.add(mIndex.getItem(number));
+
+            switch (kinds[i]) {
+                case PrefixIndex.EXACT_SYMBOL:
+                case PrefixIndex.SYMBOL:
+                    mResults.setPrefixMatch(number, SearchResults.SYMBOL,
+                            getScore(kinds[i] == PrefixIndex.EXACT_SYMBOL ? 4 : 3, key.length(),
+                                    mIndex.getSymbolKey(number).length()), key.length());
+                    break;
+
+                case PrefixIndex.NUMBER:
+                    mResults.setPrefixMatch(number, SearchResults.NUMBER, getScore(3,
+                            key.length(), mIndex.getNumberKey(number).length()), key.length());
+                    break;
+
+                default:
+                    /*
+                     * Nothing of the name is highlighted when it matched in another language.
+                     */
+                    mResults.setPrefixMatch(number, SearchResults.NAME, getScore(2,
+                            key.length(), mIndex.getNameKey(number).length()),
+                            kinds[i] == PrefixIndex.NAME ? key.length() : 0);
+                    break;
+            }
+        }
+
+        if (mCancelled) {
+            return filteredItems;
+        }
+
+        /*
+         * Then the names which are a few typos away from the filter, nearest first.
+         */
+        count = mIndex.searchFuzzy(key);
+        numbers = mIndex.getFuzzyMatches();
+        int[] prefixes = mIndex.getFuzzyPrefixes();
+
+        for (int i = 0; i < count; i++) {
+            int number = numbers[i];
+
+            if (!mResults.contains(number)) {
+                ElementListItem element = mIndex.getItem(number);
+
+                if (element != null) {
+                    filteredItems.add(element);
+
+                    mResults.setPrefixMatch(number, SearchResults.NAME, getScore(1, prefixes[i],
+                            mIndex.getNameKey(number).length()), prefixes[i]);
+                }
+            }
+        }
+
+        if (mCancelled) {
+            return filteredItems;
+        }
+
+        /*
+         * Elements matched by any other property follow, in atomic number order.
+         */
+        if (mTextIndex != null && filter.trim().length() >= MIN_PROPERTY_FILTER_LENGTH) {
+            for (TextIndex.Match match : mTextIndex.search(filter)) {
+                if (!mResults.contains(match.getNumber())) {
+                    ElementListItem element = mIndex.getItem(match.getNumber());
+
+                    if (element != null) {
+                        filteredItems.add(element);
+
+                        int length = 0;
+                        for (int i = 1; i < match.getRanges().length; i += 2) {
+                            length += match.getRanges()[i] - match.getRanges()[i - 1];
+                        }
+
+                        mResults.setPropertyMatch(match.getNumber(),
+                                getScore(0, length, match.getValue().length()), match);
+                    }
+                }
+            }
+        }
+
+        /*
+         * The most relevant first. The score is positive, so its bits order like it, and the
+         * position in the low bits keeps equal scores in the order above.
+         */
+        long[] keys = mIndex.getSortKeys();
+
+        for (int i = 0; i < filteredItems.size(); i++) {
+            int bits = Float.floatToIntBits(mResults.getScore(filteredItems.get(i).getNumber()));
+
+            keys[i] = ((long) (Integer.MAX_VALUE - bits) << 32) | i;
+        }
+
+        Arrays.sort(keys, 0, filteredItems.size());
+
+        List<ElementListItem> sortedItems = new ArrayList<>(filteredItems.size());
+
+        for (int i = 0; i < filteredItems.size(); i++) {
+            sortedItems.add(filteredItems.get((int) keys[i]));
+        }
+
+        return sortedItems;
+    }
+
+    /*
+     * Places every item at its rank in the sorted index, elements with an unknown value follow
+     * in their previous order.
+     */
+    private List<ElementListItem> sort(List<ElementListItem> items) {
+        if (mSortedIndex == null) {
+            return items;
+        }
+
+        ElementListItem[] rankedItems = new ElementListItem[mSortedIndex.size()];
+        List<ElementListItem> unknownItems = new ArrayList<>();
+
+        for (ElementListItem item : items) {
+            int rank = mSortedIndex.getRank(item.getNumber());
+
+            if (rank >= 0) {
+                rankedItems[rank] = item;
+            } else {
+                unknownItems.add(item);
+            }
+        }
+
+        List<ElementListItem> sortedItems = new ArrayList<>(items.size());
+
+        for (ElementListItem item : rankedItems) {
+            if (item != null) {
+                sortedItems.add(item);
+            }
+        }
+
+        sortedItems.addAll(unknownItems);
+
+        return sortedItems;
+    }
+}
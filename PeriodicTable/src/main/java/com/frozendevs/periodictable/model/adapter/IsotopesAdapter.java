@@ -104,18 +104,20 @@ public class IsotopesAdapter extends BaseExpandableListAdapter {
         TextView name, value;
     }
 
-    public IsotopesAdapter(Context context, Isotope[] isotopes) {
+    public IsotopesAdapter(Context context) {
         mContext = context;
 
         mTypeface = Typeface.createFromAsset(context.getAssets(), "fonts/NotoSans-Regular.ttf");
+    }
 
-        if (isotopes != null) {
-            mProperties = new IsotopeProperties[isotopes.length];
+    public void setItems(Isotope[] isotopes) {
+        mProperties = new IsotopeProperties[isotopes.length];
 
-            for (int i = 0; i < isotopes.length; i++) {
-                mProperties[i] = new IsotopeProperties(isotopes[i]);
-            }
+        for (int i = 0; i < isotopes.length; i++) {
+            mProperties[i] = new IsotopeProperties(isotopes[i]);
         }
+
+        notifyDataSetChanged();
     }
 
     @Override
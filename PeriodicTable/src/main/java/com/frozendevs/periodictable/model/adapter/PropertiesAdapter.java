@@ -20,6 +20,7 @@ import android.widget.TextView;
 
 import com.frozendevs.periodictable.R;
 import com.frozendevs.periodictable.model.ElementProperties;
+import com.frozendevs.periodictable.model.Facet;
 import com.frozendevs.periodictable.model.TableItem;
 
 public class PropertiesAdapter extends BaseAdapter implements
@@ -149,19 +150,7 @@ public class PropertiesAdapter extends BaseAdapter implements
                         String.valueOf(properties.getPeriod())),
                 new Property<String>(R.string.property_block, properties.getBlock()),
                 new Property<String>(R.string.property_category, mContext.getString(
-                        new int[]{
-                                R.string.category_diatomic_nonmetals,
-                                R.string.category_noble_gases,
-                                R.string.category_alkali_metals,
-                                R.string.category_alkaline_earth_metals,
-                                R.string.category_metalloids,
-                                R.string.category_polyatomic_nonmetals,
-                                R.string.category_other_metals,
-                                R.string.category_transition_metals,
-                                R.string.category_lanthanides,
-                                R.string.category_actinides,
-                                R.string.category_unknown
-                        }[properties.getCategory()])),
+                        Facet.CATEGORY_NAMES[properties.getCategory()])),
                 new Property<String>(R.string.property_electron_configuration,
                         properties.getElectronConfiguration()),
                 new Property<String>(R.string.property_electrons_per_shell,
@@ -0,0 +1,121 @@
+package com.frozendevs.periodictable.model.adapter;
+
+import com.frozendevs.periodictable.helper.ElementSet;
+import com.frozendevs.periodictable.helper.TextIndex;
+
+import java.util.Arrays;
+
+/**
+ * Why the elements matched a search, indexed by atomic number: the field which matched, the
+ * ranges of its text which matched and how relevant the match is. Every search fills one of these,
+ * so the results cost a few arrays per search rather than objects per match.
+ */
+class SearchResults {
+
+    static final int NONE = -1;
+    static final int SYMBOL = 0;
+    static final int NUMBER = 1;
+    static final int NAME = 2;
+    static final int PROPERTY = 3;
+
+    private static final int[] NO_RANGES = new int[0];
+
+    /*
+     * The ranges at the beginning of a field, shared for the lengths of the symbols and names.
+     */
+    private static final int[][] PREFIX_RANGES = new int[32][];
+
+    static {
+        PREFIX_RANGES[0] = NO_RANGES;
+
+        for (int length = 1; length < PREFIX_RANGES.length; length++) {
+            PREFIX_RANGES[length] = new int[]{0, length};
+        }
+    }
+
+    private int[] mFields = new int[ElementSet.CAPACITY];
+    private float[] mScores = new float[ElementSet.CAPACITY];
+    private int[] mPrefixes = new int[ElementSet.CAPACITY];
+    private TextIndex.Match[] mPropertyMatches = new TextIndex.Match[ElementSet.CAPACITY];
+
+    SearchResults() {
+        Arrays.fill(mFields, NONE);
+    }
+
+    /**
+     * Sets the result of an element whose field matched from its beginning, the given number of
+     * characters of it are highlighted.
+     */
+    void setPrefixMatch(int number, int field, float score, int length) {
+        mFields[number] = field;
+        mScores[number] = score;
+        mPrefixes[number] = length;
+    }
+
+    void setPropertyMatch(int number, float score, TextIndex.Match match) {
+        mFields[number] = PROPERTY;
+        mScores[number] = score;
+        mPropertyMatches[number] = match;
+    }
+
+    boolean contains(int number) {
+        return mFields[number] != NONE;
+    }
+
+    /**
+     * Higher is more relevant. The integral part ranks the kind of match, the exact symbol above
+     * symbol and number prefixes, then name prefixes, names with typos and other properties. The
+     * fraction is the part of the text which matched.
+     */
+    float getScore(int number) {
+        return mScores[number];
+    }
+
+    /**
+     * Returns the pairs of start and end offsets which matched in the text of the given field, for
+     * a property in its value, or null if the element matched another field or did not match. The
+     * array is shared and must not be modified.
+     */
+    int[] getRanges(int number, int field) {
+        if (mFields[number] != field || field == NONE) {
+            return null;
+        }
+
+        if (field == PROPERTY) {
+            return mPropertyMatches[number].getRanges();
+        }
+
+        int length = mPrefixes[number];
+
+        return length < PREFIX_RANGES.length ? PREFIX_RANGES[length] : new int[]{0, length};
+    }
+
+    /**
+     * Returns the property which matched, null unless the field is PROPERTY.
+     */
+    TextIndex.Match getPropertyMatch(int number) {
+        return mFields[number] == PROPERTY ? mPropertyMatches[number] : null;
+    }
+
+    /**
+     * Whether the row of the element shows the same for both results.
+     */
+    static boolean isSameMatch(SearchResults a, SearchResults b, int number) {
+        int field = a.mFields[number];
+
+        if (field != b.mFields[number]) {
+            return false;
+        }
+
+        if (field == PROPERTY) {
+            TextIndex.Match match = a.mPropertyMatches[number];
+            TextIndex.Match otherMatch = b.mPropertyMatches[number];
+
+            return match.getProperty() == otherMatch.getProperty() &&
+                    match.getValue().equals(otherMatch.getValue()) &&
+                    Arrays.equals(match.getRanges(), otherMatch.getRanges());
+        }
+
+        return field == NONE || a.mPrefixes[number] == b.mPrefixes[number];
+    }
+}
@@ -1,8 +1,13 @@
 package com.frozendevs.periodictable.model.adapter;
 
 import android.content.Context;
-import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
 import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.os.Process;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -10,13 +15,66 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import com.frozendevs.periodictable.R;
+import com.frozendevs.periodictable.helper.ElementSet;
 import com.frozendevs.periodictable.model.TableItem;
+import com.frozendevs.periodictable.widget.TileAtlas;
+import com.frozendevs.periodictable.widget.TileRenderer;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TableAdapter extends DynamicAdapter<TableItem> {
 
+    /*
+     * The smallest tiles of the pyramid, in pixels.
+     */
+    private static final int MIN_LEVEL_TILE_SIZE = 24;
+
+    private static final int WORKERS_COUNT = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Renders the tiles of the table, one run of them per core.
+     */
+    private static final ExecutorService mTilesExecutor = Executors.newFixedThreadPool(
+            WORKERS_COUNT, new ThreadFactory() {
+                private final AtomicInteger mCount = new AtomicInteger();
+
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    return new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+
+                            runnable.run();
+                        }
+                    }, "TableTiles #" + mCount.incrementAndGet());
+                }
+            });
+
+    private static final int[] CATEGORY_COLORS = {
+            R.color.category_diatomic_nonmetals_bg,
+            R.color.category_noble_gases_bg,
+            R.color.category_alkali_metals_bg,
+            R.color.category_alkaline_earth_metals_bg,
+            R.color.category_metalloids_bg,
+            R.color.category_polyatomic_nonmetals_bg,
+            R.color.category_other_metals_bg,
+            R.color.category_transition_metals_bg,
+            R.color.category_lanthanides_bg,
+            R.color.category_actinides_bg,
+            R.color.category_unknown_bg
+    };
+
     private static enum ViewType {
         ITEM,
         TEXT
@@ -24,19 +82,94 @@ public class TableAdapter extends DynamicAdapter<TableItem> {
 
     private Context mContext;
     private Typeface mTypeface;
-    private Bitmap[] mBitmaps;
+    private volatile TileAtlas[] mLevels;
+    private volatile int mLevelInUse;
+    private boolean mLevelsCached;
+    private TileCache mTileCache;
+    private TileRenderer mRenderer;
     private int mGroupsCount;
     private int mPeriodsCount;
     private int mTileSize;
+    private String[] mAtomicWeights = new String[0];
+    private ElementSet mMatches;
 
     private class ViewHolder {
         TextView symbol, number, name, weight;
     }
 
+    /*
+     * One tile drawn by the renderer every time, so it stays sharp at whatever scale the view
+     * showing it is zoomed to.
+     */
+    private class TileDrawable extends Drawable {
+        private int mPosition;
+        private int mSize;
+        private int mAlpha = 0xff;
+
+        TileDrawable(int position) {
+            mPosition = position;
+            mSize = mContext.getResources().getDimensionPixelSize(R.dimen.table_item_size);
+        }
+
+        @Override
+        public void draw(Canvas canvas) {
+            Rect bounds = getBounds();
+
+            int saveCount = mAlpha < 0xff ? canvas.saveLayerAlpha(bounds.left, bounds.top,
+                    bounds.right, bounds.bottom, mAlpha, Canvas.ALL_SAVE_FLAG) : canvas.save();
+
+            canvas.translate(bounds.left, bounds.top);
+            canvas.scale((float) bounds.width() / mSize, (float) bounds.height() / mSize);
+
+            drawTile(canvas, mPosition);
+
+            canvas.restoreToCount(saveCount);
+        }
+
+        @Override
+        public int getIntrinsicWidth() {
+            return mSize;
+        }
+
+        @Override
+        public int getIntrinsicHeight() {
+            return mSize;
+        }
+
+        @Override
+        public void setAlpha(int alpha) {
+            if (mAlpha != alpha) {
+                mAlpha = alpha;
+
+                invalidateSelf();
+            }
+        }
+
+        @Override
+        public void setColorFilter(ColorFilter colorFilter) {
+        }
+
+        @Override
+        public int getOpacity() {
+            return mAlpha < 0xff ? PixelFormat.TRANSLUCENT : PixelFormat.OPAQUE;
+        }
+    }
+
     public TableAdapter(Context context) {
         mContext = context;
+        mTileCache = new TileCache(context);
+    }
 
-        mTypeface = Typeface.createFromAsset(context.getAssets(), "fonts/NotoSans-Regular.ttf");
+    /*
+     * Loaded together with the tiles, off the main thread.
+     */
+    private synchronized Typeface getTypeface() {
+        if (mTypeface == null) {
+            mTypeface = Typeface.createFromAsset(mContext.getAssets(),
+                    "fonts/NotoSans-Regular.ttf");
+        }
+
+        return mTypeface;
     }
 
     @Override
@@ -50,69 +183,65 @@ public class TableAdapter extends DynamicAdapter<TableItem> {
 
                 convertView.setBackgroundColor(getBackgroundColor(position));
 
-                switch (position) {
-                    case 4:
-                        ((TextView) convertView).setText(R.string.category_actinides);
-                        break;
+                ((TextView) convertView).setText(getText(position));
 
-                    case 5:
-                        ((TextView) convertView).setText(R.string.category_alkali_metals);
-                        break;
+                return convertView;
 
-                    case 6:
-                        ((TextView) convertView).setText(R.string.category_alkaline_earth_metals);
-                        break;
+            case ITEM:
+                TableItem item = getItem(position);
 
-                    case 7:
-                        ((TextView) convertView).setText(R.string.category_diatomic_nonmetals);
-                        break;
+                if (item != null) {
+                    return getView(item, convertView, parent);
+                }
+                break;
+        }
 
-                    case 8:
-                        ((TextView) convertView).setText(R.string.category_lanthanides);
-                        break;
+        return null;
+    }
 
-                    case 9:
-                        ((TextView) convertView).setText(R.string.category_metalloids);
-                        break;
+    /*
+     * The text of the tiles which only show text, null for the others.
+     */
+    private String getText(int position) {
+        switch (position) {
+            case 4:
+                return mContext.getString(R.string.category_actinides);
 
-                    case 22:
-                        ((TextView) convertView).setText(R.string.category_noble_gases);
-                        break;
+            case 5:
+                return mContext.getString(R.string.category_alkali_metals);
 
-                    case 23:
-                        ((TextView) convertView).setText(R.string.category_polyatomic_nonmetals);
-                        break;
+            case 6:
+                return mContext.getString(R.string.category_alkaline_earth_metals);
 
-                    case 24:
-                        ((TextView) convertView).setText(R.string.category_other_metals);
-                        break;
+            case 7:
+                return mContext.getString(R.string.category_diatomic_nonmetals);
 
-                    case 25:
-                        ((TextView) convertView).setText(R.string.category_transition_metals);
-                        break;
+            case 8:
+                return mContext.getString(R.string.category_lanthanides);
 
-                    case 26:
-                        ((TextView) convertView).setText(R.string.category_unknown);
-                        break;
+            case 9:
+                return mContext.getString(R.string.category_metalloids);
 
-                    case 92:
-                        ((TextView) convertView).setText("57 - 71");
-                        break;
+            case 22:
+                return mContext.getString(R.string.category_noble_gases);
 
-                    case 110:
-                        ((TextView) convertView).setText("89 - 103");
-                        break;
-                }
+            case 23:
+                return mContext.getString(R.string.category_polyatomic_nonmetals);
 
-                return convertView;
+            case 24:
+                return mContext.getString(R.string.category_other_metals);
 
-            case ITEM:
-                TableItem item = getItem(position);
+            case 25:
+                return mContext.getString(R.string.category_transition_metals);
 
-                if (item != null) {
-                    return getView(item, convertView, parent);
-                }
-                break;
+            case 26:
+                return mContext.getString(R.string.category_unknown);
+
+            case 92:
+                return "57 - 71";
+
+            case 110:
+                return "89 - 103";
         }
 
         return null;
@@ -130,62 +259,75 @@ public class TableAdapter extends DynamicAdapter<TableItem> {
             viewHolder = new ViewHolder();
 
             viewHolder.symbol = (TextView) convertView.findViewById(R.id.element_symbol);
-            viewHolder.symbol.setTypeface(mTypeface);
+            viewHolder.symbol.setTypeface(getTypeface());
             viewHolder.number = (TextView) convertView.findViewById(R.id.element_number);
-            viewHolder.number.setTypeface(mTypeface);
+            viewHolder.number.setTypeface(getTypeface());
             viewHolder.name = (TextView) convertView.findViewById(R.id.element_name);
-            viewHolder.name.setTypeface(mTypeface);
+            viewHolder.name.setTypeface(getTypeface());
             viewHolder.weight = (TextView) convertView.findViewById(R.id.element_weight);
-            viewHolder.weight.setTypeface(mTypeface);
+            viewHolder.weight.setTypeface(getTypeface());
 
             convertView.setTag(viewHolder);
         }
 
-        String atomicWeight = item.getStandardAtomicWeight();
-
-        try {
-            BigDecimal bigDecimal = new BigDecimal(atomicWeight);
-            atomicWeight = bigDecimal.setScale(3, RoundingMode.HALF_UP).toString();
-        } catch (NumberFormatException ignored) {
-        }
-
         convertView.setBackgroundColor(getBackgroundColor(item));
 
         viewHolder.symbol.setText(item.getSymbol());
         viewHolder.number.setText(String.valueOf(item.getNumber()));
         viewHolder.name.setTextSize(12f);
         viewHolder.name.setText(item.getName());
-        viewHolder.weight.setText(atomicWeight);
+        viewHolder.weight.setText(getAtomicWeight(item));
 
         return convertView;
     }
 
-    public View getActiveView(Bitmap bitmap, View convertView, ViewGroup parent) {
+    /*
+     * Rounded once per element, not on every bind.
+     */
+    private synchronized String getAtomicWeight(TableItem item) {
+        int number = item.getNumber();
+
+        if (number >= mAtomicWeights.length) {
+            mAtomicWeights = Arrays.copyOf(mAtomicWeights, number + 1);
+        }
+
+        if (mAtomicWeights[number] == null) {
+            String atomicWeight = item.getStandardAtomicWeight();
+
+            try {
+                BigDecimal bigDecimal = new BigDecimal(atomicWeight);
+                atomicWeight = bigDecimal.setScale(3, RoundingMode.HALF_UP).toString();
+            } catch (NumberFormatException ignored) {
+            }
+
+            mAtomicWeights[number] = atomicWeight;
+        }
+
+        return mAtomicWeights[number];
+    }
+
+    /**
+     * Returns a view showing the tile at the given position on its own. The tile is drawn rather
+     * than copied out of the pyramid, so it is as sharp as the zoom the view is scaled to.
+     */
+    public View getActiveView(int position, View convertView, ViewGroup parent) {
         if (convertView == null) {
             convertView = LayoutInflater.from(mContext).inflate(R.layout.table_active_item,
                     parent, false);
         }
 
+        TileAtlas[] levels = mLevels;
+        TileAtlas atlas = levels != null ? getNearestLevel(levels, 0) : null;
+
         ImageView imageView = (ImageView) convertView.findViewById(R.id.bitmap);
-        imageView.setImageBitmap(bitmap);
+        imageView.setImageDrawable(atlas != null && atlas.hasTile(position) ?
+                new TileDrawable(position) : null);
 
         return convertView;
     }
 
     public int getBackgroundColor(TableItem item) {
-        return mContext.getResources().getColor(new int[]{
-                R.color.category_diatomic_nonmetals_bg,
-                R.color.category_noble_gases_bg,
-                R.color.category_alkali_metals_bg,
-                R.color.category_alkaline_earth_metals_bg,
-                R.color.category_metalloids_bg,
-                R.color.category_polyatomic_nonmetals_bg,
-                R.color.category_other_metals_bg,
-                R.color.category_transition_metals_bg,
-                R.color.category_lanthanides_bg,
-                R.color.category_actinides_bg,
-                R.color.category_unknown_bg
-        }[item.getCategory()]);
+        return mContext.getResources().getColor(CATEGORY_COLORS[item.getCategory()]);
     }
 
     public int getBackgroundColor(int position) {
@@ -288,7 +430,7 @@ public class TableAdapter extends DynamicAdapter<TableItem> {
 
     @Override
     public boolean isEmpty() {
-        return super.isEmpty() || mBitmaps == null;
+        return super.isEmpty() || mLevels == null;
     }
 
     public int getGroupsCount() {
@@ -299,64 +441,243 @@ public class TableAdapter extends DynamicAdapter<TableItem> {
         return mPeriodsCount;
     }
 
-    public void buildDrawingCache(ViewGroup parent) {
-        Bitmap[] bitmaps = new Bitmap[mGroupsCount * mPeriodsCount];
+    /**
+     * Renders every tile into a new pyramid of atlases, which replaces the previous one once it
+     * is complete. The first level holds the tiles at their layout size, every next one at half
+     * the size of the previous one, down to MIN_LEVEL_TILE_SIZE pixels. Each level is drawn with a
+     * TileRenderer at its own scale rather than filtered down, so its text stays sharp.
+     *
+     * The pages of the first level are decoded from the tile cache when it holds them, the tiles
+     * of every other level are rendered. Blocks until every tile is in place.
+     */
+    public void buildDrawingCache() {
+        int tileSize = mContext.getResources().getDimensionPixelSize(R.dimen.table_item_size);
+
+        boolean[] positions = new boolean[mGroupsCount * mPeriodsCount];
+        int count = 0;
+
+        for (int position = 0; position < positions.length; position++) {
+            positions[position] = getItem(position) != null ||
+                    getItemViewType(position) == ViewType.TEXT.ordinal();
+
+            if (positions[position]) {
+                count++;
+            }
+        }
+
+        List<TileAtlas> levels = new ArrayList<>();
+
+        for (float scale = 1f; levels.isEmpty() || tileSize * scale >= MIN_LEVEL_TILE_SIZE;
+             scale /= 2f) {
+            levels.add(new TileAtlas(positions, tileSize, scale));
+        }
+
+        TileAtlas[] atlases = levels.toArray(new TileAtlas[levels.size()]);
+
+        mLevelsCached = mTileCache.read(atlases[0]);
+
+        if (!mLevelsCached) {
+            renderTiles(positions, count, tileSize, atlases);
+        } else if (atlases.length > 1) {
+            renderTiles(positions, count, tileSize,
+                    Arrays.copyOfRange(atlases, 1, atlases.length));
+        }
+
+        mTileSize = tileSize;
+        mLevels = atlases;
+    }
+
+    /**
+     * Saves the first level of the pyramid built by the last call to buildDrawingCache() to the
+     * tile cache, unless it was read from it. Must be called on the thread which built it, the
+     * table may already draw from the pyramid meanwhile.
+     */
+    public void saveDrawingCache() {
+        TileAtlas[] levels = mLevels;
+
+        if (levels != null && levels[0] != null && !mLevelsCached) {
+            mTileCache.write(levels[0]);
+
+            mLevelsCached = true;
+        }
+    }
 
-        View convertView = null;
-        int previousViewType = 0;
+    /*
+     * The tiles are split into a contiguous run per core, each rendered by a thread of the pool
+     * straight into its own region of the pages.
+     */
+    private void renderTiles(boolean[] positions, int count, int tileSize, TileAtlas[] atlases) {
+        int workers = Math.max(Math.min(WORKERS_COUNT, count), 1);
+        List<Future<?>> futures = new ArrayList<>(workers);
 
-        for (int row = 0; row < mPeriodsCount; row++) {
-            for (int column = 0; column < mGroupsCount; column++) {
-                int position = (row * mGroupsCount) + column;
+        int position = 0;
 
-                int viewType = getItemViewType(position);
-                if (viewType != previousViewType) {
-                    convertView = null;
+        for (int worker = 0; worker < workers; worker++) {
+            int start = position;
+            int tiles = ((count * (worker + 1)) / workers) - ((count * worker) / workers);
+
+            while (tiles > 0) {
+                if (positions[position++]) {
+                    tiles--;
                 }
-                previousViewType = viewType;
+            }
 
-                convertView = getView(position, convertView, parent);
+            futures.add(mTilesExecutor.submit(new TilesWorker(positions, start,
+                    worker + 1 < workers ? position : positions.length, tileSize, atlases)));
+        }
 
-                if (convertView != null) {
-                    ViewGroup.LayoutParams layoutParams = convertView.getLayoutParams();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
 
-                    mTileSize = Math.max(mTileSize, Math.max(layoutParams.width,
-                            layoutParams.height));
+    /*
+     * Renders a run of tiles into every level. It has its own canvas and renderer, the only
+     * thing shared with the other workers are the pages, of which it only touches the cells of
+     * its own tiles.
+     */
+    private class TilesWorker implements Runnable {
+        private boolean[] mPositions;
+        private int mStart, mEnd, mSize;
+        private TileAtlas[] mAtlases;
+
+        TilesWorker(boolean[] positions, int start, int end, int tileSize, TileAtlas[] atlases) {
+            mPositions = positions;
+            mStart = start;
+            mEnd = end;
+            mSize = tileSize;
+            mAtlases = atlases;
+        }
 
-                    convertView.measure(View.MeasureSpec.makeMeasureSpec(layoutParams.width,
-                            View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(
-                            layoutParams.height, View.MeasureSpec.EXACTLY));
-                    convertView.layout(0, 0, convertView.getMeasuredWidth(),
-                            convertView.getMeasuredHeight());
+        @Override
+        public void run() {
+            TileRenderer renderer = new TileRenderer(mContext.getResources(), mSize,
+                    getTypeface());
+            Canvas canvas = new Canvas();
 
-                    convertView.buildDrawingCache();
+            for (int position = mStart; position < mEnd; position++) {
+                if (mPositions[position]) {
+                    for (TileAtlas atlas : mAtlases) {
+                        int saveCount = atlas.beginTile(canvas, position);
 
-                    if (convertView.getDrawingCache() != null) {
-                        bitmaps[position] = Bitmap.createBitmap(convertView.getDrawingCache());
-                    }
+                        drawTile(canvas, renderer, position);
 
-                    convertView.destroyDrawingCache();
+                        canvas.restoreToCount(saveCount);
+                    }
                 }
             }
         }
+    }
+
+    /**
+     * Returns the level of the pyramid to draw the tiles from at the given zoom, the smallest one
+     * which does not have to be scaled up, or null if the tiles are not built. Once the pyramid
+     * was trimmed, the nearest level left, larger ones first.
+     */
+    public TileAtlas getTileAtlas(float zoom) {
+        TileAtlas[] levels = mLevels;
+
+        if (levels == null) {
+            return null;
+        }
+
+        /*
+         * Level i holds the tiles at 1 / 2^i of their size, whether it is still there or not.
+         */
+        int level = 0;
+        while (level + 1 < levels.length && 1f / (1 << (level + 1)) >= zoom) {
+            level++;
+        }
+
+        mLevelInUse = level;
+
+        return getNearestLevel(levels, level);
+    }
+
+    private static TileAtlas getNearestLevel(TileAtlas[] levels, int level) {
+        for (int distance = 0; distance < levels.length; distance++) {
+            if (level - distance >= 0 && levels[level - distance] != null) {
+                return levels[level - distance];
+            }
+
+            if (level + distance < levels.length && levels[level + distance] != null) {
+                return levels[level + distance];
+            }
+        }
 
-        mBitmaps = bitmaps;
+        return null;
     }
 
-    public Bitmap getDrawingCache(int position) {
-        return mBitmaps[position];
+    /**
+     * Draws the tile at the given position at its layout size, for zoom levels above those of
+     * the pyramid. Must be called on the main thread.
+     */
+    public void drawTile(Canvas canvas, int position) {
+        if (mRenderer == null) {
+            mRenderer = new TileRenderer(mContext.getResources(), mContext.getResources()
+                    .getDimensionPixelSize(R.dimen.table_item_size), getTypeface());
+        }
+
+        drawTile(canvas, mRenderer, position);
     }
 
-    public void destroyDrawingCache() {
-        if (mBitmaps != null) {
-            for (Bitmap bitmap : mBitmaps) {
-                if (bitmap != null) {
-                    bitmap.recycle();
-                }
+    private void drawTile(Canvas canvas, TileRenderer renderer, int position) {
+        TableItem item = getItem(position);
+
+        if (item != null) {
+            renderer.drawItem(canvas, getBackgroundColor(item), item.getSymbol(),
+                    item.getNumber(), item.getName(), getAtomicWeight(item));
+        } else {
+            String text = getText(position);
+
+            if (text != null) {
+                renderer.drawText(canvas, getBackgroundColor(position), text);
             }
         }
+    }
+
+    /*
+     * The pyramid is dropped but not recycled, the table may still be drawing from it.
+     */
+    public void destroyDrawingCache() {
+        mLevels = null;
+    }
+
+    /**
+     * Drops every level of the pyramid but the one the table was last drawn from, which keeps
+     * the table drawn until buildDrawingCache() rebuilds the rest.
+     */
+    public void trimDrawingCache() {
+        TileAtlas[] levels = mLevels;
+
+        if (levels != null) {
+            TileAtlas[] trimmedLevels = new TileAtlas[levels.length];
+
+            int level = Math.min(mLevelInUse, levels.length - 1);
+            trimmedLevels[level] = levels[level];
+
+            mLevels = trimmedLevels;
+        }
+    }
+
+    /**
+     * Dims the tiles of the elements which are not in the given set, nothing is dimmed if it is
+     * null. The set is not copied, call notifyDataSetChanged() after modifying it.
+     */
+    public void setMatches(ElementSet matches) {
+        mMatches = matches;
+    }
+
+    public boolean isDimmed(int position) {
+        TableItem item = getItem(position);
 
-        mBitmaps = null;
+        return mMatches != null && (item == null || !mMatches.contains(item.getNumber()));
     }
 
     @Override
@@ -0,0 +1,176 @@
+package com.frozendevs.periodictable.model.adapter;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.util.DisplayMetrics;
+
+import com.frozendevs.periodictable.BuildConfig;
+import com.frozendevs.periodictable.widget.TileAtlas;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * The pages of the first level of the tile pyramid saved to the files directory after they were
+ * first rendered, so that later cold starts decode them instead of drawing the largest tiles
+ * again. The pages are stored as PNG, which keeps the text exact at a fraction of the size of
+ * their pixels.
+ *
+ * The cache is keyed by everything the tiles are drawn from: the density, the font scale, the
+ * locale and the theme of the device, and the version code of the app together with the CRC32 of
+ * R.raw.database. A cache built for another key is ignored and replaced by the next write.
+ */
+class TileCache {
+
+    private static final String FILE_NAME = "table.tiles";
+    private static final int MAGIC = 0x50545443;
+    private static final int VERSION = 2;
+
+    private Context mContext;
+    private File mFile;
+
+    TileCache(Context context) {
+        mContext = context.getApplicationContext();
+        mFile = new File(context.getFilesDir(), FILE_NAME);
+    }
+
+    /*
+     * Read from the current configuration on every use, it changes while the process lives.
+     */
+    private String getKey() {
+        DisplayMetrics metrics = mContext.getResources().getDisplayMetrics();
+        Configuration configuration = mContext.getResources().getConfiguration();
+
+        return metrics.densityDpi + ";" + metrics.density + ";" + configuration.fontScale + ";" +
+                configuration.locale + ";" + mContext.getApplicationInfo().theme;
+    }
+
+    /**
+     * Draws the cached pages into the pages of the given level, returns false if there is no
+     * cache built for this key and this level, in which case every tile has to be drawn.
+     */
+    boolean read(TileAtlas level) {
+        if (!mFile.exists()) {
+            return false;
+        }
+
+        DataInputStream inputStream = null;
+
+        try {
+            inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(mFile)));
+
+            if (inputStream.readInt() != MAGIC || inputStream.readInt() != VERSION ||
+                    inputStream.readInt() != BuildConfig.VERSION_CODE ||
+                    inputStream.readLong() != BuildConfig.DATABASE_HASH ||
+                    !inputStream.readUTF().equals(getKey()) ||
+                    inputStream.readInt() != level.getTileSize() ||
+                    inputStream.readInt() != level.getPagesCount()) {
+                return false;
+            }
+
+            Canvas canvas = new Canvas();
+
+            for (int page = 0; page < level.getPagesCount(); page++) {
+                int length = inputStream.readInt();
+
+                if (length < 0 || length > mFile.length()) {
+                    return false;
+                }
+
+                byte[] data = new byte[length];
+                inputStream.readFully(data);
+
+                Bitmap bitmap = BitmapFactory.decodeByteArray(data, 0, length);
+                Bitmap pageBitmap = level.getPageAt(page);
+
+                if (bitmap == null || bitmap.getWidth() != pageBitmap.getWidth() ||
+                        bitmap.getHeight() != pageBitmap.getHeight()) {
+                    return false;
+                }
+
+                canvas.setBitmap(pageBitmap);
+                canvas.drawBitmap(bitmap, 0, 0, null);
+
+                bitmap.recycle();
+            }
+
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            close(inputStream);
+        }
+
+        return false;
+    }
+
+    /**
+     * Replaces the cache with the pages of the given level. The file is written next to the old
+     * one and renamed over it, so a process killed halfway through never leaves a truncated cache.
+     */
+    void write(TileAtlas level) {
+        File tmpFile = new File(mFile.getPath() + ".tmp");
+
+        DataOutputStream outputStream = null;
+
+        try {
+            outputStream = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(tmpFile)));
+
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(VERSION);
+            outputStream.writeInt(BuildConfig.VERSION_CODE);
+            outputStream.writeLong(BuildConfig.DATABASE_HASH);
+            outputStream.writeUTF(getKey());
+            outputStream.writeInt(level.getTileSize());
+            outputStream.writeInt(level.getPagesCount());
+
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+            for (int page = 0; page < level.getPagesCount(); page++) {
+                data.reset();
+
+                if (!level.getPageAt(page).compress(Bitmap.CompressFormat.PNG, 100, data)) {
+                    throw new IOException("Unable to compress page " + page);
+                }
+
+                outputStream.writeInt(data.size());
+                data.writeTo(outputStream);
+            }
+
+            outputStream.close();
+            outputStream = null;
+
+            if (!tmpFile.renameTo(mFile)) {
+                throw new IOException("Unable to replace " + mFile);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+
+            close(outputStream);
+
+            tmpFile.delete();
+        }
+    }
+
+    private static void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
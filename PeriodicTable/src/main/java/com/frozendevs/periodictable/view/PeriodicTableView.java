@@ -3,10 +3,10 @@ package com.frozendevs.periodictable.view;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.database.DataSetObserver;
-import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.graphics.Matrix;
 import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
 import android.os.Build;
 import android.os.Parcel;
 import android.os.Parcelable;
@@ -18,15 +18,20 @@ import android.view.accessibility.AccessibilityEvent;
 
 import com.frozendevs.periodictable.R;
 import com.frozendevs.periodictable.model.adapter.TableAdapter;
+import com.frozendevs.periodictable.widget.TileAtlas;
 
 public class PeriodicTableView extends ZoomableScrollView {
 
     private final float DEFAULT_SPACING = 1f;
+    private static final int DIMMED_ALPHA = 0x40;
 
     private View mEmptyView = null;
+
     private Paint mPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+    private Paint mDimmedPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
     private TableAdapter mAdapter;
-    private Matrix mMatrix = new Matrix();
+    private Rect mSourceRect = new Rect();
+    private RectF mDestinationRect = new RectF();
     private OnItemClickListener mOnItemClickListener;
     private View mActiveView;
 
@@ -56,6 +61,10 @@ public class PeriodicTableView extends ZoomableScrollView {
                     }
                 }
 
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
+                    updateActiveViewAlpha();
+                }
+
                 invalidate();
             }
         }
@@ -110,6 +119,8 @@ public class PeriodicTableView extends ZoomableScrollView {
     }
 
     private void initPeriodicTableView() {
+        mDimmedPaint.setAlpha(DIMMED_ALPHA);
+
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
             mOnDownConfirmed = new OnClickConfirmedListener() {
                 @Override
@@ -201,9 +212,17 @@ public class PeriodicTableView extends ZoomableScrollView {
 
     @Override
     protected void dispatchDraw(Canvas canvas) {
-        if (mAdapter != null && !mAdapter.isEmpty()) {
+        TileAtlas atlas = mAdapter != null ? mAdapter.getTileAtlas(getZoom()) : null;
+
+        if (atlas != null && !mAdapter.isEmpty()) {
             float tileSize = getScaledTileSize();
 
+            /*
+             * Zoomed in beyond the largest level the few tiles on screen are drawn as vectors
+             * rather than scaled up.
+             */
+            boolean drawVectors = getZoom() > atlas.getScale();
+
             float y = (getHeight() - getScaledHeight()) / 2f;
 
             for (int row = 0; row < mAdapter.getPeriodsCount(); row++) {
@@ -217,16 +236,29 @@ public class PeriodicTableView extends ZoomableScrollView {
                         if (mActiveView != null && indexOfChild(mActiveView) >= 0 &&
                                 position == (int) mActiveView.getTag(R.id.active_view_position)) {
                             adjustActiveView();
-                        } else {
-                            Bitmap bitmap = mAdapter.getDrawingCache(position);
-
-                            if (bitmap != null && !bitmap.isRecycled()) {
-                                mMatrix.reset();
-                                mMatrix.postScale(getZoom(), getZoom());
-                                mMatrix.postTranslate(x, y);
-
-                                canvas.drawBitmap(bitmap, mMatrix, mPaint);
-                            }
+                        } else if (drawVectors && atlas.hasTile(position)) {
+                            int saveCount = mAdapter.isDimmed(position) ?
+                                    canvas.saveLayerAlpha(x, y, x + tileSize, y + tileSize,
+                                            DIMMED_ALPHA, Canvas.ALL_SAVE_FLAG) : canvas.save();
+
+                            canvas.translate(x, y);
+                            canvas.scale(getZoom(), getZoom());
+
+                            mAdapter.drawTile(canvas, position);
+
+                            canvas.restoreToCount(saveCount);
+                        } else if (atlas.hasTile(position)) {
+                            /*
+                             * Every tile comes out of the few pages of the level closest to
+                             * the zoom, so the renderer draws them in a handful of batches and
+                             * never scales them down by more than half.
+                             */
+                            atlas.getBounds(position, mSourceRect);
+                            mDestinationRect.set(x, y, x + tileSize, y + tileSize);
+
+                            canvas.drawBitmap(atlas.getPage(position), mSourceRect,
+                                    mDestinationRect,
+                                    mAdapter.isDimmed(position) ? mDimmedPaint : mPaint);
                         }
                     }
 
@@ -270,7 +302,7 @@ public class PeriodicTableView extends ZoomableScrollView {
             removeView(mActiveView);
         }
 
-        mActiveView = mAdapter.getActiveView(mAdapter.getDrawingCache(position), mActiveView, this);
+        mActiveView = mAdapter.getActiveView(position, mActiveView, this);
 
         if (mActiveView != null) {
             mActiveView.setTag(R.id.active_view_position, position);
@@ -278,11 +310,24 @@ public class PeriodicTableView extends ZoomableScrollView {
             mActiveView.setPivotY(0f);
 
             adjustActiveView();
+            updateActiveViewAlpha();
 
             addView(mActiveView);
         }
     }
 
+    /**
+     * Dims the active view when its tile is not matched, like the tiles drawn around it.
+     */
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    public void updateActiveViewAlpha() {
+        if (mActiveView != null) {
+            int position = (int) mActiveView.getTag(R.id.active_view_position);
+
+            mActiveView.setAlpha(mAdapter.isDimmed(position) ? DIMMED_ALPHA / 255f : 1f);
+        }
+    }
+
     @Override
     public Parcelable onSaveInstanceState() {
         SavedState savedState = new SavedState(super.onSaveInstanceState());
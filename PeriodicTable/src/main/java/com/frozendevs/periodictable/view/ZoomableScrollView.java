@@ -20,7 +20,7 @@ import com.frozendevs.periodictable.widget.Zoomer;
 public class ZoomableScrollView extends FrameLayout implements GestureDetector.OnGestureListener,
         ScaleGestureDetector.OnScaleGestureListener, GestureDetector.OnDoubleTapListener {
 
-    private static final float DEFAULT_MAX_ZOOM = 1f;
+    private static final float DEFAULT_MAX_ZOOM = 2f;
 
     private OverScroller mOverScroller;
     private Zoomer mZoomer;
@@ -33,7 +33,7 @@ public class ZoomableScrollView extends FrameLayout implements GestureDetector.O
     private boolean mIsScrolling = false;
     private float mMinZoom = 0f;
     private float mZoom = 0f;
-    private float mMaxZoom = 1f;
+    private float mMaxZoom = DEFAULT_MAX_ZOOM;
     private Point mZoomFocalPoint = new Point();
     private float mStartZoom;
     private boolean mEdgeEffectTopActive;
@@ -0,0 +1,143 @@
+package com.frozendevs.periodictable.widget;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+import java.util.Arrays;
+
+/**
+ * Square tiles packed into a few large bitmaps, so that a grid of tiles is drawn out of a handful
+ * of textures instead of one bitmap per tile. Each tile is surrounded by a transparent pixel so
+ * that filtering a scaled tile does not bleed its neighbours into it.
+ *
+ * The pages are kept within the smallest texture size every hardware renderer supports. An atlas
+ * may hold its tiles drawn at a smaller scale than their layout size, as one level of a pyramid.
+ */
+public class TileAtlas {
+
+    private static final int MAX_PAGE_SIZE = 2048;
+    private static final int GUTTER = 1;
+
+    private int mTileSize;
+    private float mScale;
+    private Bitmap[] mPages;
+    private int[] mPageIndices;
+    private int[] mLefts;
+    private int[] mTops;
+
+    /**
+     * Lays out the given positions, those which are false get no tile, for tiles of the given
+     * layout size drawn at the given scale. The pages are allocated right away and are
+     * transparent until the tiles are drawn into them.
+     */
+    public TileAtlas(boolean[] positions, int layoutSize, float scale) {
+        mTileSize = Math.max(Math.round(layoutSize * scale), 1);
+        mScale = scale;
+
+        int cellSize = mTileSize + (2 * GUTTER);
+        int columns = Math.max(MAX_PAGE_SIZE / cellSize, 1);
+        int tilesPerPage = columns * columns;
+
+        int count = 0;
+        for (boolean position : positions) {
+            if (position) {
+                count++;
+            }
+        }
+
+        mPageIndices = new int[positions.length];
+        mLefts = new int[positions.length];
+        mTops = new int[positions.length];
+
+        Arrays.fill(mPageIndices, -1);
+
+        int pagesCount = (count + tilesPerPage - 1) / tilesPerPage;
+        mPages = new Bitmap[pagesCount];
+
+        int tile = 0;
+
+        for (int position = 0; position < positions.length; position++) {
+            if (positions[position]) {
+                int index = tile % tilesPerPage;
+
+                mPageIndices[position] = tile / tilesPerPage;
+                mLefts[position] = ((index % columns) * cellSize) + GUTTER;
+                mTops[position] = ((index / columns) * cellSize) + GUTTER;
+
+                tile++;
+            }
+        }
+
+        /*
+         * The last page is only as large as the tiles it holds.
+         */
+        for (int page = 0; page < pagesCount; page++) {
+            int tiles = Math.min(count - (page * tilesPerPage), tilesPerPage);
+            int pageColumns = Math.min(tiles, columns);
+            int pageRows = (tiles + columns - 1) / columns;
+
+            mPages[page] = Bitmap.createBitmap(pageColumns * cellSize, pageRows * cellSize,
+                    Bitmap.Config.ARGB_8888);
+        }
+    }
+
+    /**
+     * Returns the size of the tiles in the pages, in pixels.
+     */
+    public int getTileSize() {
+        return mTileSize;
+    }
+
+    /**
+     * Returns the scale the tiles are drawn at, relative to their layout size.
+     */
+    public float getScale() {
+        return mScale;
+    }
+
+    public int getPagesCount() {
+        return mPages.length;
+    }
+
+    /**
+     * Returns the page at the given index, with every tile it holds.
+     */
+    public Bitmap getPageAt(int page) {
+        return mPages[page];
+    }
+
+    public boolean hasTile(int position) {
+        return position >= 0 && position < mPageIndices.length && mPageIndices[position] >= 0;
+    }
+
+    /**
+     * Returns the page holding the tile at the given position, whose bounds in it are given by
+     * getBounds().
+     */
+    public Bitmap getPage(int position) {
+        return mPages[mPageIndices[position]];
+    }
+
+    public void getBounds(int position, Rect bounds) {
+        bounds.set(mLefts[position], mTops[position], mLefts[position] + mTileSize,
+                mTops[position] + mTileSize);
+    }
+
+    /**
+     * Prepares the canvas to draw the tile at the given position at its layout size, with its top
+     * left corner at the origin, clipped to the tile and scaled to the atlas. Returns the save
+     * count to restore the canvas to afterwards.
+     */
+    public int beginTile(Canvas canvas, int position) {
+        canvas.setBitmap(getPage(position));
+
+        int saveCount = canvas.save();
+
+        canvas.translate(mLefts[position], mTops[position]);
+        canvas.clipRect(0, 0, mTileSize, mTileSize);
+        canvas.scale(mScale, mScale);
+
+        return saveCount;
+    }
+}
@@ -0,0 +1,206 @@
+package com.frozendevs.periodictable.widget;
+
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+
+import com.frozendevs.periodictable.R;
+
+/**
+ * Draws the tiles of the table straight onto a canvas, laid out like the table_item and
+ * table_text layouts but without inflating, measuring or laying out any view. The paints, the
+ * metrics of their fonts and the positions of every line are computed once, so drawing a tile
+ * allocates nothing.
+ *
+ * A renderer is not thread safe, but it does not depend on the view system either, so every
+ * thread drawing tiles can have one of its own.
+ */
+public class TileRenderer {
+
+    /*
+     * The most lines a text tile is wrapped to.
+     */
+    private static final int MAX_LINES = 8;
+
+    private int mTileSize;
+    private float mPadding;
+    private Paint mBackgroundPaint = new Paint();
+    private Paint mPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.SUBPIXEL_TEXT_FLAG);
+    private Paint mNamePaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.SUBPIXEL_TEXT_FLAG);
+    private Paint mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.SUBPIXEL_TEXT_FLAG);
+    private float mTopBaseline;
+    private float mBottomBaseline;
+    private float mNameBaseline;
+    private float mTextLineHeight;
+    private float mTextCenterOffset;
+    private float mSpaceWidth;
+    private char[] mNumber = new char[11];
+    private int[] mLineStarts = new int[MAX_LINES];
+    private int[] mLineEnds = new int[MAX_LINES];
+
+    /**
+     * The symbol, the atomic number, the name and the weight of the elements are drawn with the
+     * given typeface, the text tiles with the default one.
+     */
+    public TileRenderer(Resources resources, int tileSize, Typeface typeface) {
+        mTileSize = tileSize;
+        mPadding = resources.getDimension(R.dimen.table_item_padding);
+
+        mPaint.setColor(Color.BLACK);
+        mPaint.setTypeface(typeface);
+        mPaint.setTextSize(resources.getDimension(R.dimen.table_item_text_size));
+
+        mNamePaint.setColor(Color.BLACK);
+        mNamePaint.setTypeface(typeface);
+        mNamePaint.setTextSize(resources.getDimension(R.dimen.table_item_small_text_size));
+        mNamePaint.setTextAlign(Paint.Align.CENTER);
+
+        mTextPaint.setColor(Color.BLACK);
+        mTextPaint.setTextSize(resources.getDimension(R.dimen.table_item_small_text_size));
+        mTextPaint.setTextAlign(Paint.Align.CENTER);
+
+        /*
+         * The lines of the views include the padding of their fonts, so do these.
+         */
+        Paint.FontMetrics metrics = mPaint.getFontMetrics();
+
+        mTopBaseline = mPadding - metrics.top;
+        mBottomBaseline = tileSize - mPadding - metrics.bottom;
+
+        /*
+         * The layout centers the name between the number and the weight, which are as tall as
+         * each other, so it ends up in the middle of the tile.
+         */
+        Paint.FontMetrics nameMetrics = mNamePaint.getFontMetrics();
+
+        mNameBaseline = (tileSize / 2f) - ((nameMetrics.top + nameMetrics.bottom) / 2f);
+
+        Paint.FontMetrics textMetrics = mTextPaint.getFontMetrics();
+
+        mTextLineHeight = textMetrics.descent - textMetrics.ascent;
+        mTextCenterOffset = -(textMetrics.ascent + textMetrics.descent) / 2f;
+        mSpaceWidth = mTextPaint.measureText(" ");
+    }
+
+    /**
+     * Draws the tile of an element, with its top left corner at the origin.
+     */
+    public void drawItem(Canvas canvas, int backgroundColor, String symbol, int number,
+                         String name, String weight) {
+        drawBackground(canvas, backgroundColor);
+
+        float right = mTileSize - mPadding;
+
+        canvas.drawText(symbol, mPadding, mTopBaseline, mPaint);
+
+        int length = formatNumber(number);
+        canvas.drawText(mNumber, mNumber.length - length, length,
+                right - mPaint.measureText(mNumber, mNumber.length - length, length),
+                mTopBaseline, mPaint);
+
+        canvas.drawText(weight, right - mPaint.measureText(weight), mBottomBaseline, mPaint);
+
+        /*
+         * A name too long for the tile shows its beginning, like the view does before its
+         * marquee starts.
+         */
+        float width = right - mPadding;
+        float nameWidth = mNamePaint.measureText(name);
+
+        if (nameWidth > width) {
+            int saveCount = canvas.save();
+
+            canvas.clipRect(mPadding, 0, right, mTileSize);
+            canvas.drawText(name, mPadding + (nameWidth / 2f), mNameBaseline, mNamePaint);
+
+            canvas.restoreToCount(saveCount);
+        } else {
+            canvas.drawText(name, mTileSize / 2f, mNameBaseline, mNamePaint);
+        }
+    }
+
+    /**
+     * Draws a tile with only the given text, wrapped at spaces and centered in the tile, with
+     * its top left corner at the origin.
+     */
+    public void drawText(Canvas canvas, int backgroundColor, String text) {
+        drawBackground(canvas, backgroundColor);
+
+        int lines = breakLines(text, mTileSize - (2 * mPadding));
+
+        float y = (mTileSize / 2f) - (((lines - 1) * mTextLineHeight) / 2f) +
+                mTextCenterOffset;
+
+        for (int line = 0; line < lines; line++) {
+            canvas.drawText(text, mLineStarts[line], mLineEnds[line], mTileSize / 2f, y,
+                    mTextPaint);
+
+            y += mTextLineHeight;
+        }
+    }
+
+    private void drawBackground(Canvas canvas, int color) {
+        mBackgroundPaint.setColor(color);
+
+        canvas.drawRect(0, 0, mTileSize, mTileSize, mBackgroundPaint);
+    }
+
+    /*
+     * Writes the digits of the number at the end of the buffer and returns how many there are.
+     */
+    private int formatNumber(int number) {
+        int index = mNumber.length;
+
+        do {
+            mNumber[--index] = (char) ('0' + (number % 10));
+
+            number /= 10;
+        } while (number > 0 && index > 0);
+
+        return mNumber.length - index;
+    }
+
+    /*
+     * Breaks the text into lines no wider than the given width, where possible, and returns how
+     * many there are. A word wider than the line gets a line of its own.
+     */
+    private int breakLines(String text, float width) {
+        int lines = 0;
+        int start = 0;
+        float lineWidth = 0f;
+
+        int wordStart = 0;
+
+        while (wordStart < text.length() && lines < MAX_LINES) {
+            int wordEnd = text.indexOf(' ', wordStart);
+            if (wordEnd < 0) {
+                wordEnd = text.length();
+            }
+
+            float wordWidth = mTextPaint.measureText(text, wordStart, wordEnd);
+
+            if (wordStart > start && lineWidth + mSpaceWidth + wordWidth > width) {
+                mLineStarts[lines] = start;
+                mLineEnds[lines] = wordStart - 1;
+                lines++;
+
+                start = wordStart;
+                lineWidth = wordWidth;
+            } else {
+                lineWidth += (wordStart > start ? mSpaceWidth : 0f) + wordWidth;
+            }
+
+            wordStart = wordEnd + 1;
+        }
+
+        if (start < text.length() && lines < MAX_LINES) {
+            mLineStarts[lines] = start;
+            mLineEnds[lines] = text.length();
+            lines++;
+        }
+
+        return lines;
+    }
+}